@@ -0,0 +1,36 @@
+package com.abhijeet.benchmarks;
+
+import com.abhijeet.core.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EnumerationBenchmark {
+
+	@Param({"6", "8", "10", "12"})
+	private int numNodes;
+
+	private DistanceMatrix distanceMatrix;
+
+	@Setup
+	public void setUp() {
+		distanceMatrix = Instances.newModel(numNodes).getDistanceMatrix();
+		distanceMatrix.getDistances();
+	}
+
+	@Benchmark
+	public List<Path> listShortestPaths() {
+		// The 1,000 shortest paths with branch and bound
+		BranchAndBound solver = new BranchAndBound(distanceMatrix, 1000);
+		solver.solve();
+		return solver.getShortestPaths();
+	}
+
+}
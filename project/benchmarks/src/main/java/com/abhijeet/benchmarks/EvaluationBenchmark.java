@@ -0,0 +1,76 @@
+package com.abhijeet.benchmarks;
+
+import com.abhijeet.core.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EvaluationBenchmark {
+
+	@Param({"6", "8", "10", "12", "100", "2000"})
+	private int numNodes;
+
+	private GraphModel model;
+	private DistanceMatrix distanceMatrix;
+	private DistanceMatrix coordinates;
+	private int[] path;
+	private Path shortestPath;
+	private TopPaths topPaths;
+	private double weight;
+
+	@Setup
+	public void setUp() {
+		model = Instances.newModel(numNodes);
+		distanceMatrix = model.getDistanceMatrix();
+		distanceMatrix.getDistances();
+		path = Instances.newPath(numNodes);
+		weight = distanceMatrix.getPathWeight(path);
+		shortestPath = new Path(path, weight);
+		topPaths = new TopPaths(1000, numNodes);
+
+		// Same nodes without the matrix, as the heuristic solvers see them
+		double[] x = new double[numNodes];
+		double[] y = new double[numNodes];
+		for (int id = 0; id < numNodes; id++) {
+			x[id] = model.getX(id);
+			y[id] = model.getY(id);
+		}
+		coordinates = new DistanceMatrix(x, y);
+	}
+
+	@Benchmark
+	public double weighPathFromCoordinates() {
+		return coordinates.getPathWeight(path);
+	}
+
+	@Benchmark
+	public double weighPathFromMatrix() {
+		// Hot loop of the exact solvers, over the flat matrix
+		double[] distances = distanceMatrix.getDistances();
+		double pathWeight = 0;
+		for (int i = 0; i < numNodes - 1; i++) {
+			pathWeight += distances[path[i] * numNodes + path[i + 1]];
+		}
+		return pathWeight;
+	}
+
+	@Benchmark
+	public boolean offerPath() {
+		// Bounded heap of the shortest paths, full after the first thousand offers
+		weight = (weight * 1.0000001) % 1e9;
+		return topPaths.offer(path, weight);
+	}
+
+	@Benchmark
+	public String renderPath() {
+		// Path string as shown on the side pane
+		return model.getPathString(shortestPath, 40);
+	}
+
+}
@@ -0,0 +1,62 @@
+package com.abhijeet.benchmarks;
+
+import com.abhijeet.Graph;
+import com.abhijeet.core.DistanceMatrix;
+import com.abhijeet.core.GraphModel;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GenerationBenchmark {
+
+	@Param({"6", "8", "10", "12", "100", "500", "2000"})
+	private int numNodes;
+
+	private GraphModel model;
+	private double[] x, y;
+
+	@Setup
+	public void setUp() {
+		model = Instances.newModel(numNodes);
+		x = new double[numNodes];
+		y = new double[numNodes];
+		for (int id = 0; id < numNodes; id++) {
+			x[id] = model.getX(id);
+			y[id] = model.getY(id);
+		}
+	}
+
+	@Benchmark
+	public GraphModel placeNodes() {
+		// Random coordinates checked for overlap on the spatial grid
+		return Instances.newModel(numNodes);
+	}
+
+	@Benchmark
+	public double[] buildDistanceMatrix() {
+		return new DistanceMatrix(x, y).getDistances();
+	}
+
+	@Benchmark
+	public int[][] findNeighbours() {
+		return new DistanceMatrix(x, y).getNeighbours();
+	}
+
+	@Benchmark
+	public Graph buildGraph() {
+		// Node and edge objects over the model, complete up to the edge view limit
+		return new Graph(model, false);
+	}
+
+	@Benchmark
+	public Graph buildSparseGraph() {
+		return new Graph(new GraphModel(x, y), true);
+	}
+
+}
@@ -0,0 +1,43 @@
+package com.abhijeet.benchmarks;
+
+import com.abhijeet.core.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class HeuristicBenchmark {
+
+	@Param({"100", "500", "1000", "2000"})
+	private int numNodes;
+
+	private DistanceMatrix distanceMatrix;
+
+	@Setup
+	public void setUp() {
+		// Candidate neighbours are built once, as they are shared by every solver of a graph
+		distanceMatrix = Instances.newModel(numNodes).getDistanceMatrix();
+		distanceMatrix.getNeighbours();
+	}
+
+	@Benchmark
+	public double nearestNeighbour() {
+		NearestNeighbour solver = new NearestNeighbour(distanceMatrix);
+		solver.solve();
+		return solver.getShortestPathWeight();
+	}
+
+	@Benchmark
+	public double localSearch() {
+		// Nearest neighbour path improved with 2-opt and Or-opt
+		LocalSearch solver = new LocalSearch(distanceMatrix);
+		solver.solve();
+		return solver.getShortestPathWeight();
+	}
+
+}
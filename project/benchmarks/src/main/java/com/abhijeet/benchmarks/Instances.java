@@ -0,0 +1,31 @@
+package com.abhijeet.benchmarks;
+
+import com.abhijeet.core.GraphModel;
+
+import java.util.Random;
+
+final class Instances {
+
+	// Same coordinates on every run, so results can be compared across commits
+	private static final long SEED = 20221018;
+
+	private Instances() {
+	}
+
+	static GraphModel newModel(int numNodes) {
+		return GraphModel.random(numNodes, numNodes, new Random(SEED + numNodes));
+	}
+
+	static int[] newPath(int numNodes) {
+		// Fixed random permutation of the nodes
+		Random random = new Random(SEED - numNodes);
+		int[] path = new int[numNodes];
+		for (int i = 0; i < numNodes; i++) {
+			int j = random.nextInt(i + 1);
+			path[i] = path[j];
+			path[j] = i;
+		}
+		return path;
+	}
+
+}
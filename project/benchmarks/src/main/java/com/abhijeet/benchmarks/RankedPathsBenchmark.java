@@ -0,0 +1,44 @@
+package com.abhijeet.benchmarks;
+
+import com.abhijeet.core.DistanceMatrix;
+import com.abhijeet.core.Path;
+import com.abhijeet.core.RankedPaths;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RankedPathsBenchmark {
+
+	// Every path is kept in memory, so larger graphs do not fit in a default heap
+	@Param({"6", "8", "10"})
+	private int numNodes;
+
+	@Param({"1", "4"})
+	private int parallelism;
+
+	private DistanceMatrix distanceMatrix;
+
+	@Setup
+	public void setUp() {
+		distanceMatrix = Instances.newModel(numNodes).getDistanceMatrix();
+	}
+
+	@Benchmark
+	public RankedPaths rankPaths() {
+		return new RankedPaths(distanceMatrix, parallelism);
+	}
+
+	@Benchmark
+	public Path rankAndReadLastPath() {
+		// Rows are unranked only when read
+		RankedPaths paths = new RankedPaths(distanceMatrix, parallelism);
+		return paths.get(paths.size() - 1);
+	}
+
+}
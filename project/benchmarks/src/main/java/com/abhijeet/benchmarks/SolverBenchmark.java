@@ -0,0 +1,49 @@
+package com.abhijeet.benchmarks;
+
+import com.abhijeet.core.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SolverBenchmark {
+
+	@Param({"6", "8", "10", "12", "16", "20"})
+	private int numNodes;
+
+	private DistanceMatrix distanceMatrix;
+
+	@Setup
+	public void setUp() {
+		distanceMatrix = Instances.newModel(numNodes).getDistanceMatrix();
+		distanceMatrix.getDistances();
+	}
+
+	@Benchmark
+	public double heldKarp() {
+		HeldKarp solver = new HeldKarp(distanceMatrix);
+		solver.solve();
+		return solver.getShortestPathWeight();
+	}
+
+	@Benchmark
+	public double branchAndBound() {
+		BranchAndBound solver = new BranchAndBound(distanceMatrix);
+		solver.solve();
+		return solver.getShortestPathWeight();
+	}
+
+	@Benchmark
+	public double exactSolver() {
+		// Solver picked by graph size, as the app does
+		Solver solver = Solvers.newExactSolver(distanceMatrix);
+		solver.solve();
+		return solver.getShortestPathWeight();
+	}
+
+}
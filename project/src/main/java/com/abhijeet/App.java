@@ -1,49 +1,81 @@
 package com.abhijeet;
 
+import com.abhijeet.core.GraphEdit;
+import com.abhijeet.core.InstanceFiles;
+import com.abhijeet.core.Metrics;
+import com.abhijeet.core.Path;
+import com.abhijeet.core.Phase;
+import com.abhijeet.core.SolveCache;
 import com.jfoenix.controls.*;
 import javafx.animation.FadeTransition;
 import javafx.application.Application;
 import javafx.application.Platform;
+import javafx.collections.FXCollections;
 import javafx.scene.Scene;
 import javafx.scene.control.Label;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.ListView;
+import javafx.scene.control.TextInputControl;
 import javafx.scene.image.Image;
 import javafx.scene.input.KeyCode;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
 import javafx.util.Duration;
 
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
 import java.text.DecimalFormat;
-import java.util.ArrayList;
 import java.util.Objects;
-import java.util.Timer;
-import java.util.TimerTask;
+import java.util.Random;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
 
 public class App extends Application {
 
 	// Add VM Options: --add-opens=java.base/java.lang.reflect=com.jfoenix
 
-	private static ArrayList<String> pathIndices;
-	private static ArrayList<String> pathList;
-	private static ArrayList<String> pathWeights;
 	private int minNodes, maxNodes;
 	private Graph graph;
-	private Pane graphPane;
+	private GraphPane graphPane;
 	private JFXTextField minNodesField;
 	private JFXTextField maxNodesField;
+	private JFXCheckBox listPathsBox;
 	private Label numNodesLabel;
 	private Label numEdgesLabel;
 	private Label numPathsLabel;
 	private Label shortestPathLabel;
 	private Label shortestPathWeightLabel;
-	private VBox paths;
-	private ScrollPane pathsPane;
+	private ListView<Path> pathsPane;
+	private Label pathsPlaceholderLabel;
+	private Label pathsNoteLabel;
 	private StackPane aboutPane;
-	private boolean processing = false;
+	private boolean aboutOpen = false;
+	private Stage primaryStage;
+
+	// Shortest paths of graphs solved before, saved across sessions when a file is given
+	private final SolveCache cache = new SolveCache(Integer.getInteger("graphx.cacheSize", SolveCache.DEFAULT_MAX_SIZE));
+	private final String cacheFile = System.getProperty("graphx.cacheFile");
+
+	// Seed of the first random graph, each run uses the next one, or a graph file shown on every run
+	private final Long seed = Long.getLong("graphx.seed");
+	private final String instanceFile = System.getProperty("graphx.instance");
+
+	// Background thread generating and solving graphs, one run at a time
+	private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "graphx-solver");
+		thread.setDaemon(true);
+		return thread;
+	});
+	private Future<?> currentRun;
+	private long runId;
 
 	// Java first calls the "main" function
 	public static void main(String[] args) {
-		// Launch JavaFX
+		// Phase timings for JMX clients, launch JavaFX
+		Metrics.register();
 		launch();
 	}
 
@@ -52,11 +84,15 @@ public class App extends Application {
 	public void start(Stage primaryStage) {
 
 		// Set window title
+		this.primaryStage = primaryStage;
 		primaryStage.setTitle("Graphx");
 
+		// Solved graphs of an earlier session, hit and miss counts for JMX clients
+		loadCache();
+
 		// Set panes
 		BorderPane primaryPane = new BorderPane();
-		graphPane = new Pane();
+		graphPane = new GraphPane();
 		primaryPane.setCenter(graphPane);
 		VBox sidePane = newSidePane();
 		primaryPane.setLeft(sidePane);
@@ -76,13 +112,18 @@ public class App extends Application {
 		// Application icon
 		primaryStage.getIcons().add(new Image(Objects.requireNonNull(getClass().getResourceAsStream("/icon.png"))));
 
-		// Press "Esc" to exit
+		// Press "Esc" to exit, "Delete" to remove the node under the pointer unless typing in a text field
 		primaryScene.setOnKeyPressed(event -> {
 			if (event.getCode() == KeyCode.ESCAPE) {
 				exit();
+			} else if (((event.getCode() == KeyCode.DELETE) || (event.getCode() == KeyCode.BACK_SPACE)) && !(primaryScene.getFocusOwner() instanceof TextInputControl)) {
+				graphPane.removePickedNode();
 			}
 		});
 
+		// Solve again whenever a node is added, moved or removed
+		graphPane.setOnEdit(this::edit);
+
 		// Stop all threads before exit
 		primaryStage.setOnCloseRequest(event -> exit());
 
@@ -100,13 +141,16 @@ public class App extends Application {
 
 	private void run() {
 
-		// Do not run if processing
-		if (processing) {
+		// Do not run if a dialog is open
+		if (aboutOpen) {
 			return;
 		}
 
-		// Start processing
-		processing = true;
+		// Cancel the run in progress, anything it still publishes is dropped
+		if (currentRun != null) {
+			currentRun.cancel(true);
+		}
+		long run = ++runId;
 
 		// Fade out graph
 		fadeGraphPane(1, 0);
@@ -114,105 +158,179 @@ public class App extends Application {
 		// Clear graph if one already exists
 		if (graph != null) {
 			graph.clear();
-			graphPane.getChildren().clear();
+			graph = null;
+			graphPane.clear();
 		}
 
 		// Get input from text fields
 		getInput();
+		int minNodes = this.minNodes;
+		int maxNodes = this.maxNodes;
+		boolean listPaths = listPathsBox.isSelected();
+		boolean sparse = Boolean.getBoolean("graphx.sparse");
+		long graphSeed = (seed != null) ? seed + run - 1 : new Random().nextLong();
+		setShortestPath("Processing...", "");
+		clearPaths(false);
+
+		// Generate and solve on the background thread
+		currentRun = executor.submit(() -> {
+
+			// Get new complete random graph, unless its nodes cannot be placed without overlapping, or the graph file
+			Graph graph;
+			try {
+				if (instanceFile != null) {
+					graph = new Graph(InstanceFiles.read(java.nio.file.Path.of(instanceFile)).fitToCanvas(), sparse);
+				} else {
+					graph = new Graph(minNodes, maxNodes, sparse, graphSeed);
+				}
+			} catch (IllegalStateException | IOException exception) {
+				publish(run, () -> showError(exception.getMessage()));
+				return;
+			} catch (RuntimeException exception) {
+				// Anything else is a bug, kept in the log instead of the discarded task
+				String message = "Cannot generate graph: " + ((exception.getMessage() != null) ? exception.getMessage() : exception.getClass().getSimpleName());
+				exception.printStackTrace();
+				publish(run, () -> showError(message));
+				return;
+			}
+			graph.setListPaths(listPaths);
+			graph.setCache(cache);
+			publish(run, () -> showGraph(graph));
+
+			// Seed or file in the title, so the graph can be shown again
+			String source = (instanceFile != null) ? java.nio.file.Path.of(instanceFile).getFileName().toString() : "Seed " + graphSeed;
+			publish(run, () -> primaryStage.setTitle("Graphx · " + source));
+
+			// Delay for fade animation to finish if there is a lot of paths to process
+			boolean manyPaths = graph.getNumPaths().compareTo(BigInteger.valueOf(500)) > 0;
+			try {
+				Thread.sleep(manyPaths ? 500 : 25);
+			} catch (InterruptedException exception) {
+				return;
+			}
 
-		// Get new complete random graph
-		graph = new Graph(minNodes, maxNodes);
-
-		// Add nodes to pane
-		for (Node node : graph.getNodes()) {
-			graphPane.getChildren().add(node.getCircle());
-		}
-
-		// Add edges to pane
-		for (Edge edge : graph.getEdges()) {
-			graphPane.getChildren().add(edge.getLine());
-		}
+			solve(run, graph, true);
 
-		// Move nodes to front of pane
-		for (Node node : graph.getNodes()) {
-			node.toFront();
-		}
+		});
 
-		// Fade in graph
-		fadeGraphPane(0, 1);
+	}
 
-		// Show graph info on info pane
-		int numNodes = graph.getNumNodes();
-		int numEdges = graph.getNumEdges();
-		int numPaths = graph.getNumPaths();
-		DecimalFormat formatter = new DecimalFormat("###,###,###");
-		setNumNodes(formatter.format(numNodes));
-		setNumEdges(formatter.format(numEdges));
-		setNumPaths(formatter.format(numPaths));
+	private void edit(GraphEdit edit) {
 
-		// Show "Processing..." if there is a lot of paths to process
-		if (numPaths > 500) {
-			setShortestPath("Processing...", "");
-			clearPaths(true);
-		} else {
-			clearPaths(false);
+		// Do not edit if a dialog is open or while the graph is being generated
+		if (aboutOpen || (graph == null)) {
+			return;
 		}
 
-		// Multiple threads
-		TimerTask task = new TimerTask() {
-
-			@Override
-			public void run() {
-
-				new Thread(() -> {
+		// Cancel the run in progress, its solver still hands on what it found to the edited graph
+		if (currentRun != null) {
+			currentRun.cancel(true);
+		}
+		long run = ++runId;
+
+		// Edited graph shown at once, without fading
+		Graph graph = this.graph.edit(edit);
+		graph.setCache(cache);
+		this.graph.clear();
+		this.graph = graph;
+		graphPane.setGraph(graph);
+		setGraphInfo(graph);
+		clearPaths(false);
+		if (!primaryStage.getTitle().endsWith(" (edited)")) {
+			primaryStage.setTitle(primaryStage.getTitle() + " (edited)");
+		}
 
-					// Array with ASCII-encoded paths
-					graph.findPaths(0);
+		// Solve on the background thread, showing the path without fading so dragging stays smooth
+		currentRun = executor.submit(() -> solve(run, graph, false));
 
-					// Array with nodes forming the shortest path
-					graph.findShortestPath();
+	}
 
-					// Update GUI in JavaFX thread
-					Platform.runLater(() -> {
+	private void solve(long run, Graph graph, boolean fade) {
 
-						// Highlight the shortest path on pane
-						graph.highlightShortestPath();
+		// Shorter paths found while the search goes on, only the latest one is shown, exact ones while paths are listed
+		String shorterPathNote = graph.isExact() ? "" : " (approx., improving...)";
+		AtomicReference<Path> shorterPath = new AtomicReference<>();
+		Solution solution;
+		try {
+			solution = graph.findShortestPath(path -> {
+				if (shorterPath.getAndSet(path) == null) {
+					publish(run, () -> showShortestPath(shorterPath.getAndSet(null), shorterPathNote, fade));
+				}
+			});
+		} catch (CancellationException exception) {
+			return;
+		} catch (RuntimeException exception) {
+			// A failed solve would otherwise be lost with its task and leave the previous path shown
+			String message = "Cannot solve graph: " + ((exception.getMessage() != null) ? exception.getMessage() : exception.getClass().getSimpleName());
+			exception.printStackTrace();
+			publish(run, () -> showError(message));
+			return;
+		}
 
-						// Show the shortest path on side pane
-						setShortestPath(graph.getShortestPath(), formatter.format(graph.getShortestPathWeight()) + " px");
+		// Show the shortest path on pane and side pane, and the list of paths
+		publish(run, () -> {
+			showShortestPath(solution.shortestPath(), solution.exact() ? "" : " (approx.)", fade);
+			setPaths(solution);
+		});
 
-						// Show list of paths on side pane
-						setPaths();
+	}
 
-						// Stop processing
-						processing = false;
+	private void publish(long run, Runnable update) {
+		// Update GUI in JavaFX thread, unless a newer run has started since
+		Platform.runLater(() -> {
+			if (run == runId) {
+				update.run();
+			}
+		});
+	}
 
-					});
+	private void showGraph(Graph graph) {
 
-				}).start();
+		this.graph = graph;
 
-			}
+		// Draw nodes and edges on pane
+		graphPane.setGraph(graph);
 
-		};
+		// Fade in graph
+		fadeGraphPane(0, 1);
 
-		// Delay for fade animation to finish
-		Timer timer = new Timer();
+		// Show graph info on info pane
+		setGraphInfo(graph);
 
-		// Run thread in parallel after delay if there is a lot of paths to process
-		if (numPaths > 500) {
-			timer.schedule(task, 500);
+		// Show "Processing..." if there is a lot of paths to process
+		boolean manyPaths = graph.getNumPaths().compareTo(BigInteger.valueOf(500)) > 0;
+		if (manyPaths) {
+			setShortestPath("Processing...", "");
+			clearPaths(true);
 		} else {
-			timer.schedule(task, 25);
+			setShortestPath("", "");
+			clearPaths(false);
 		}
 
 	}
 
+	private void setGraphInfo(Graph graph) {
+		DecimalFormat formatter = new DecimalFormat("###,###,###");
+		setNumNodes(formatter.format(graph.getNumNodes()));
+		setNumEdges(formatter.format(graph.getNumEdges()));
+		setNumPaths(formatCount(graph.getNumPaths()));
+	}
+
+	private void showError(String message) {
+		setNumNodes("0");
+		setNumEdges("0");
+		setNumPaths("0");
+		setShortestPath(message, "");
+		clearPaths(false);
+		fadeGraphPane(0, 1);
+	}
+
 	private void getInput() {
 
 		String minNodesText = minNodesField.getText();
 		String maxNodesText = maxNodesField.getText();
 		int lowerBound = 1;
-		int upperBound = 10;
+		int upperBound = Graph.MAX_NODES;
 
 		try {
 
@@ -248,6 +366,7 @@ public class App extends Application {
 		newLabel(sidePane, "Random Number of Nodes", "nodes-header");
 		minNodesField = newTextField(sidePane, "Minimum Nodes", "4", "min-nodes");
 		maxNodesField = newTextField(sidePane, "Maximum Nodes", "8", "max-nodes");
+		listPathsBox = newCheckBox(sidePane, "List Shortest Paths", true, "list-paths");
 
 		// "Run" button
 		JFXButton runButton = newButton(sidePane, "Run", "run-button", true, true);
@@ -267,6 +386,7 @@ public class App extends Application {
 		// List of paths
 		newLabel(sidePane, "List of Hamiltonian Paths", "path-header");
 		pathsPane = newPathsPane(sidePane);
+		pathsNoteLabel = newLabel(sidePane, "", "path-list-note");
 
 		// "About" button
 		JFXButton aboutButton = newButton(sidePane, "About", "about-button", false, false);
@@ -293,6 +413,15 @@ public class App extends Application {
 		return textField;
 	}
 
+	private JFXCheckBox newCheckBox(Pane pane, String text, boolean selected, String id) {
+		JFXCheckBox checkBox = new JFXCheckBox(text);
+		checkBox.setSelected(selected);
+		checkBox.setFocusTraversable(false);
+		checkBox.setId(id);
+		pane.getChildren().add(checkBox);
+		return checkBox;
+	}
+
 	private JFXButton newButton(Pane pane, String text, String id, boolean defaultButton, boolean focusTraversable) {
 		JFXButton button = new JFXButton(text);
 		button.setDefaultButton(defaultButton);
@@ -317,19 +446,30 @@ public class App extends Application {
 		return numLabel;
 	}
 
-	private ScrollPane newPathsPane(Pane pane) {
-		pathsPane = new ScrollPane();
+	private ListView<Path> newPathsPane(Pane pane) {
+
+		// Virtualized list, only the visible rows have cells
+		pathsPane = new ListView<>();
 		pathsPane.setMaxSize(200, 197);
 		pathsPane.setMinSize(200, 197);
 		pathsPane.setFocusTraversable(true);
+
+		// Shown while the list is empty
+		pathsPlaceholderLabel = new Label();
+		pathsPlaceholderLabel.setId("path-list-item");
+		pathsPlaceholderLabel.setMaxWidth(175);
+		pathsPlaceholderLabel.setWrapText(true);
+		pathsPane.setPlaceholder(pathsPlaceholderLabel);
+
 		pane.getChildren().add(pathsPane);
 		return pathsPane;
+
 	}
 
 	private void openAboutPane() {
 
-		// Do not open if processing
-		if (processing) {
+		// Do not open if already open
+		if (aboutOpen) {
 			return;
 		}
 
@@ -345,10 +485,14 @@ public class App extends Application {
 		VBox vBox = new VBox();
 
 		// Paragraphs
-		label = newAboutLabel("This algorithm randomly generates a complete graph with a given number of nodes in the range 1 to 10.", "about-text", 50);
+		label = newAboutLabel("This algorithm randomly generates a complete graph with a given number of nodes in the range 1 to " + Graph.MAX_NODES + ".", "about-text", 50);
+		vBox.getChildren().add(label);
+		label = newAboutLabel("All paths are listed in increasing order of weight for up to " + Graph.ENUMERATION_LIMIT + " nodes, and the " + new DecimalFormat("###,###").format(Graph.PATH_LIST_SIZE) + " shortest paths beyond.", "about-text", 50);
 		vBox.getChildren().add(label);
 		label = newAboutLabel("Hover over a node or an edge to display the node coordinates or the edge weight respectively.", "about-text", 50);
 		vBox.getChildren().add(label);
+		label = newAboutLabel("Click to add a node, drag a node to move it, or press \"Delete\" over a node to remove it.", "about-text", 50);
+		vBox.getChildren().add(label);
 		label = newAboutLabel("The shortest Hamiltonian path is highlighted.", "about-text", 40);
 		vBox.getChildren().add(label);
 
@@ -377,8 +521,8 @@ public class App extends Application {
 
 			aboutDialog.close();
 
-			// Do not allow opening fo another dialog
-			processing = false;
+			// Allow opening another dialog
+			aboutOpen = false;
 
 		});
 
@@ -388,8 +532,8 @@ public class App extends Application {
 		// Show dialog
 		aboutDialog.show();
 
-		// Do not allow opening fo another dialog
-		processing = true;
+		// Do not allow opening another dialog
+		aboutOpen = true;
 
 	}
 
@@ -416,50 +560,63 @@ public class App extends Application {
 		numEdgesLabel.setText(numEdges);
 	}
 
+	private String formatCount(BigInteger count) {
+
+		// Exact count while it stays readable
+		if (count.compareTo(BigInteger.valueOf(1_000_000_000_000L)) < 0) {
+			return new DecimalFormat("###,###,###").format(count);
+		}
+
+		// Scientific notation beyond, with the leading digits truncated
+		String digits = count.toString();
+		return digits.charAt(0) + "." + digits.substring(1, 3) + " × 10^" + (digits.length() - 1);
+
+	}
+
 	private void setNumPaths(String numPaths) {
 		numPathsLabel.setText(numPaths);
 	}
 
+	private void showShortestPath(Path path, String weightNote, boolean fade) {
+
+		try (Phase phase = Phase.start("highlight").setNumNodes(graph.getNumNodes())) {
+
+			// Replace edges of the previous path on pane if edges were not all drawn
+			graphPane.updateEdges(graph.setPathEdges(path));
+
+			// Highlight the path on pane
+			graphPane.highlightPath(path, fade);
+
+		}
+
+		// Show the path on side pane
+		DecimalFormat formatter = new DecimalFormat("###,###,###");
+		setShortestPath(graph.getModel().getPathString(path), formatter.format(path.getWeight()) + " px" + weightNote);
+
+	}
+
 	private void setShortestPath(String path, String weight) {
 		shortestPathLabel.setText(path);
 		shortestPathWeightLabel.setText(weight);
 	}
 
-	public static void addPath(String index, String path, String weight) {
-		pathIndices.add(index);
-		pathList.add(path);
-		pathWeights.add(weight);
-	}
+	private void setPaths(Solution solution) {
+
+		// Cells render rows from the result model as they are scrolled into view
+		pathsPane.setCellFactory(listView -> new PathCell(graph.getModel()));
+		pathsPane.setItems(FXCollections.observableList(solution.shortestPaths()));
+		pathsPane.scrollTo(0);
+
+		// Note below the list
+		String pathsNote = solution.pathsNote();
+		pathsNoteLabel.setText((pathsNote == null) ? "" : pathsNote);
 
-	private void setPaths() {
-		for (int i = 0; i < pathList.size(); i++) {
-			if (!pathIndices.get(i).equals("")) {
-				newLabel(paths, pathIndices.get(i), "path-list-index");
-			}
-			if (!pathList.get(i).equals("")) {
-				Label pathLabel = newLabel(paths, "  " + pathList.get(i), "path-list-item");
-				pathLabel.setMaxWidth(175);
-				pathLabel.setWrapText(true);
-			}
-			if (!pathWeights.get(i).equals("")) {
-				newLabel(paths, "    " + pathWeights.get(i), "path-list-item-weight");
-			}
-		}
-		pathsPane.setContent(paths);
 	}
 
 	private void clearPaths(boolean showProcessing) {
-		paths = new VBox();
-		pathIndices = new ArrayList<>();
-		pathList = new ArrayList<>();
-		pathWeights = new ArrayList<>();
-		if (showProcessing) {
-			Label pathLabel = new Label("Processing...");
-			pathLabel.setId("path-list-item");
-			pathLabel.setMaxWidth(175);
-			pathLabel.setWrapText(true);
-			pathsPane.setContent(pathLabel);
-		}
+		pathsPane.setItems(FXCollections.emptyObservableList());
+		pathsPlaceholderLabel.setText(showProcessing ? "Processing..." : "");
+		pathsNoteLabel.setText("");
 	}
 
 	private void fadeGraphPane(int from, int to) {
@@ -469,9 +626,32 @@ public class App extends Application {
 		fade.play();
 	}
 
+	private void loadCache() {
+		cache.register();
+		// A cache of size 0 would drop everything it loads, then empty the file on exit
+		if ((cacheFile != null) && (cache.getMaxSize() > 0) && Files.exists(java.nio.file.Path.of(cacheFile))) {
+			try {
+				cache.load(java.nio.file.Path.of(cacheFile));
+			} catch (IOException exception) {
+				System.err.println("Cannot load solve cache: " + exception.getMessage());
+			}
+		}
+	}
+
 	private void exit() {
+
+		// Keep solved graphs for the next session, losing them only makes it slower
+		if ((cacheFile != null) && (cache.getMaxSize() > 0)) {
+			try {
+				cache.save(java.nio.file.Path.of(cacheFile));
+			} catch (IOException exception) {
+				System.err.println("Cannot save solve cache: " + exception.getMessage());
+			}
+		}
+
 		Platform.exit();
 		System.exit(0);
+
 	}
 
 }
@@ -1,88 +1,115 @@
 package com.abhijeet;
 
+import com.abhijeet.core.*;
+
+import java.math.BigInteger;
 import java.text.DecimalFormat;
 import java.util.*;
+import java.util.function.Consumer;
 
 public class Graph {
 
-	private Map<Node, Set<Edge>> nodeMap;
-	private Set<Edge> edgeSet;
-	private int[] asciiNodes;
-	private ArrayList<Integer> asciiPaths;
-	private double[] x, y;
-	private StringBuilder shortestPath;
-	private double shortestPathWeight;
-	private Node[] shortestPathNodes;
+	// Largest graph that can be generated
+	public static final int MAX_NODES = 2000;
 
-	public Graph(int minNodes, int maxNodes) {
+	// Largest graph drawn with all of its edges, only the shortest path is drawn beyond it
+	public static final int EDGE_VIEW_LIMIT = 50;
 
-		edgeSet = new LinkedHashSet<>();
-		nodeMap = new LinkedHashMap<>();
+	// Largest graph whose paths are all listed, branch and bound lists the shortest ones beyond it
+	public static final int ENUMERATION_LIMIT = 10;
 
-		// Random number of nodes
-		final Random random = new Random();
-		final int numNodes = random.nextInt(maxNodes - minNodes + 1) + minNodes;
+	// Number of shortest paths listed beyond the enumeration limit
+	public static final int PATH_LIST_SIZE = 1000;
 
-		// Random node coordinates
-		generateNodes(numNodes);
+	// Nearest neighbours of each node drawn as candidate edges in sparse mode
+	public static final int SPARSE_NEIGHBOURS = 5;
 
-		// Add all possible edges
-		completeGraph();
+	private Map<Node, Set<Edge>> nodeMap;
+	private Set<Edge> edgeSet;
+	private final GraphModel model;
+	private Node[] nodes;
+	private Map<Long, Edge> drawnEdges = new HashMap<>();
+	private Map<Long, Edge> pathEdges = new HashMap<>();
+	private final boolean sparse;
+	private final boolean completeGraph;
+	private boolean listPaths;
+	private final int parallelism = Integer.getInteger("graphx.parallelism", Runtime.getRuntime().availableProcessors());
+	private long timeLimit = Long.getLong("graphx.timeLimit", IteratedLocalSearch.DEFAULT_TIME_LIMIT);
+	private SolveCache cache;
+
+	// Solver reusing the path and table of the graph before an edit, set by the solver thread and read when editing
+	private volatile IncrementalSolver incrementalSolver;
 
+	public Graph(int minNodes, int maxNodes) {
+		this(minNodes, maxNodes, false);
 	}
 
-	private void generateNodes(final int numNodes) {
+	public Graph(int minNodes, int maxNodes, boolean sparse) {
+		// Random node coordinates and edge weights, without any JavaFX objects
+		this(GraphModel.random(minNodes, maxNodes, new Random()), sparse);
+	}
 
-		Node node;
-		Random random = new Random();
+	public Graph(int minNodes, int maxNodes, boolean sparse, long seed) {
+		// Same graph for the same seed and number range
+		this(GraphModel.random(minNodes, maxNodes, new Random(seed)), sparse);
+	}
 
-		// Lower and upper bounds for coordinates
-		int minX, minY, maxX, maxY;
-		minX = minY = 35;
-		maxX = 1250;
-		maxY = 790;
+	public Graph(GraphModel model, boolean sparse) {
 
-		// ASCII code for letter "A"
-		int index = 65;
+		edgeSet = new LinkedHashSet<>();
+		nodeMap = new LinkedHashMap<>();
+		this.model = model;
+		this.sparse = sparse;
 
-		do {
+		try (Phase phase = Phase.start("graph").setNumNodes(model.getNumNodes())) {
 
-			node = new Node(Character.toString((char) index), random.nextInt(maxX - minX + 1) + minX, random.nextInt(maxY - minY + 1) + minY);
+			// Node views over the model
+			generateNodes();
 
-			// Increment index if node can be added
-			if (addNode(node)) {
-				index++;
+			// Add all possible edges if there are not too many to draw, or only the edges to the nearest nodes
+			completeGraph = !sparse && (getNumNodes() <= EDGE_VIEW_LIMIT);
+			if (completeGraph) {
+				completeGraph();
+			} else if (sparse) {
+				sparseGraph();
 			}
+			phase.setNumEdges(getNumEdges());
 
 		}
-		while (getNumNodes() < numNodes);
 
 	}
 
+	private void generateNodes() {
+		nodes = new Node[model.getNumNodes()];
+		for (int id = 0; id < nodes.length; id++) {
+			nodes[id] = new Node(model, id);
+			nodeMap.put(nodes[id], new LinkedHashSet<>());
+		}
+	}
+
 	private void completeGraph() {
-		for (Node firstNode : getNodes()) {
-			for (Node secondNode : getNodes()) {
-				if (firstNode.equals(secondNode)) {
-					continue;
-				}
-				if (!containsEdge(firstNode, secondNode)) {
-					Edge edge = new Edge(firstNode, secondNode);
-					addEdge(firstNode, secondNode, edge);
-				}
+		// Each pair of distinct nodes once, so no duplicate check is needed
+		for (int first = 0; first < nodes.length; first++) {
+			for (int second = first + 1; second < nodes.length; second++) {
+				Edge edge = new Edge(nodes[first], nodes[second], model.getDistance(first, second));
+				addEdge(nodes[first], nodes[second], edge);
 			}
 		}
 	}
 
-	private boolean addNode(Node node) {
-
-		// Add node if it is not overlapping another node
-		if (getClosestNode(node.getX(), node.getY()) == null) {
-			nodeMap.put(node, new LinkedHashSet<>());
-			return true;
+	private void sparseGraph() {
+		// Candidate edges from the spatial grid, without building the distance matrix
+		int[][] neighbours = model.getDistanceMatrix().getNeighbours();
+		for (int first = 0; first < nodes.length; first++) {
+			for (int i = 0; i < Math.min(SPARSE_NEIGHBOURS, neighbours[first].length); i++) {
+				int second = neighbours[first][i];
+				if (!drawnEdges.containsKey(getPair(first, second))) {
+					Edge edge = new Edge(nodes[first], nodes[second], model.getDistance(first, second));
+					addEdge(nodes[first], nodes[second], edge);
+					drawnEdges.put(getPair(first, second), edge);
+				}
+			}
 		}
-
-		return false;
-
 	}
 
 	private void addEdge(Node firstNode, Node secondNode, Edge edge) {
@@ -92,244 +119,223 @@ public class Graph {
 		}
 	}
 
+	public GraphModel getModel() {
+		return model;
+	}
+
 	public Set<Node> getNodes() {
 		return new LinkedHashSet<>(nodeMap.keySet());
 	}
 
+	public Node getNode(int id) {
+		return nodes[id];
+	}
+
 	public Set<Edge> getEdges() {
 		return edgeSet;
 	}
 
 	public int getNumNodes() {
-		return nodeMap.keySet().size();
+		return model.getNumNodes();
 	}
 
-	public int getNumEdges() {
-		return edgeSet.size();
+	public long getNumEdges() {
+		// Only the candidate edges to the nearest nodes in sparse mode, every pair of nodes otherwise
+		return sparse ? drawnEdges.size() : model.getNumEdges();
 	}
 
-	public int getNumPaths() {
-		return factorial(getNumNodes());
+	public BigInteger getNumPaths() {
+		return model.getNumPaths();
 	}
 
-	public void findPaths(int start) {
-
-		// Initialise array with ASCII-encoded nodes
-		if (asciiNodes == null) {
-			int numNodes = getNumNodes();
-			asciiNodes = new int[numNodes];
-			for (int index = 0; index < numNodes; index++) {
-				asciiNodes[index] = index + 65;
-			}
-		}
-
-		// Initialise array with ASCII-encoded paths
-		if (asciiPaths == null) {
-			asciiPaths = new ArrayList<>();
-		}
-
-		// If end is reached, nothing is left to permute
-		if (start >= getNumNodes() - 1) {
-
-			// Add paths to array
-			for (int index : asciiNodes) {
-				asciiPaths.add(index);
-			}
-
-		} else {
-
-			int swap;
+	public boolean isExact() {
+		return Solvers.isExact(getNumNodes());
+	}
 
-			for (int index = start; index <= getNumNodes() - 1; index++) {
+	public void setListPaths(boolean listPaths) {
+		this.listPaths = listPaths;
+	}
 
-				// Swap node indices
-				swap = asciiNodes[start];
-				asciiNodes[start] = asciiNodes[index];
-				asciiNodes[index] = swap;
+	public void setTimeLimit(long timeLimit) {
+		this.timeLimit = timeLimit;
+	}
 
-				// Recurse on the sub-array to find permutations
-				findPaths(start + 1);
+	public void setCache(SolveCache cache) {
+		// Shared by graphs, so solving the same layout again returns at once
+		this.cache = cache;
+	}
 
-				// Backtrack
-				swap = asciiNodes[start];
-				asciiNodes[start] = asciiNodes[index];
-				asciiNodes[index] = swap;
+	public Graph edit(GraphEdit edit) {
 
-			}
+		// Same settings on the edited graph
+		Graph graph = new Graph(edit.model(), sparse);
+		graph.listPaths = listPaths;
+		graph.timeLimit = timeLimit;
+		graph.cache = cache;
 
+		// Solved from where this graph's solver left off, or from scratch if it never ran
+		IncrementalSolver solver = incrementalSolver;
+		if (solver != null) {
+			graph.incrementalSolver = solver.next(edit);
+		} else {
+			graph.incrementalSolver = new IncrementalSolver(edit.model().getDistanceMatrix(), timeLimit);
+			graph.incrementalSolver.setParallelism(parallelism);
 		}
+		return graph;
 
 	}
 
-	public void findShortestPath() {
-
-		int counter = 0;
-		shortestPath = new StringBuilder();
-		shortestPathWeight = 100000;
-		StringBuilder path;
-		double pathWeight;
-		int numNodes = getNumNodes();
-		int numPaths = getNumPaths();
-		double x1, y1, x2, y2;
-		int pathDisplayLimit = 1000;
-		DecimalFormat formatter = new DecimalFormat("###,###");
-
-		// Array with nodes created from node set
-		Node[] nodes = new Node[numNodes];
-		int index = 0;
-		for (Node node : getNodes()) {
-			nodes[index] = node;
-			index++;
-		}
-
-		// Array with coordinates of all nodes
-		findCoordinates();
-
-		for (int i = 0; i < numPaths; i++) {
-
-			pathWeight = 0;
-			path = new StringBuilder();
+	public Solution findShortestPath() {
+		return findShortestPath(path -> {
+		});
+	}
 
-			// Append to path for each node in ASCII-encoded paths array
-			for (int j = 0; j < numNodes - 1; j++) {
+	public Solution findShortestPath(Consumer<Path> shorterPaths) {
 
-				// Append node to path
-				path.append((char) (int) (asciiPaths.get(counter))).append("-");
+		int numNodes = getNumNodes();
+		DistanceMatrix distanceMatrix = model.getDistanceMatrix();
 
-				// Set weight so far
-				x1 = x[(asciiPaths.get(counter)) - 65];
-				y1 = y[(asciiPaths.get(counter)) - 65];
-				x2 = x[(asciiPaths.get(counter + 1)) - 65];
-				y2 = y[(asciiPaths.get(counter + 1)) - 65];
-				pathWeight += Math.sqrt(Math.pow((x2 - x1), 2) + Math.pow((y2 - y1), 2));
+		// Keep the shortest paths seen so far in a bounded heap, or only the shortest one
+		boolean listShortestPaths = listPaths && isExact() && (numNodes > ENUMERATION_LIMIT);
 
-				// Next node in path
-				counter++;
+		// Shortest path of the same layout solved before
+		SolveCache.Key key = (cache != null) ? SolveCache.key(model, isExact() ? SolveCache.EXACT : SolveCache.timeLimited("iterated-local-search", timeLimit)) : null;
+		Path cachedPath = (key != null) ? cache.get(key) : null;
 
+		Path shortestPath;
+		if (cachedPath != null) {
+			shortestPath = orient(cachedPath);
+		} else {
+			// Exact, or improving the path until the time limit and passing on each shorter one, kept for the next edit
+			if (incrementalSolver == null) {
+				incrementalSolver = new IncrementalSolver(distanceMatrix, timeLimit);
+				incrementalSolver.setParallelism(parallelism);
 			}
-
-			// Append last node to path
-			path.append((char) (int) (asciiPaths.get(counter)));
-
-			// Set shortest path so far
-			if (pathWeight < shortestPathWeight) {
-				shortestPath = new StringBuilder(path.toString());
-				shortestPathWeight = pathWeight;
+			incrementalSolver.setListener(path -> shorterPaths.accept(orient(path)));
+			Solver solver = incrementalSolver;
+			try (Phase phase = Phase.start("solve").setNumNodes(numNodes)) {
+				solver.solve();
+				phase.setNumPathsEvaluated(solver.getNumEvaluations());
 			}
-
-			// Add to list of paths if display limit is not reached yet
-			if (i < pathDisplayLimit) {
-				App.addPath(formatter.format(i + 1) + ".", path.toString(), formatter.format(pathWeight) + " px");
-			} else if (i == pathDisplayLimit) {
-				App.addPath("", "Showing " + formatter.format(pathDisplayLimit) + " paths", "");
+			Path solvedPath = new Path(solver.getShortestPath(), solver.getShortestPathWeight());
+			if ((key != null) && !Thread.currentThread().isInterrupted()) {
+				// Paths cut short by a cancelled run are not kept
+				cache.put(key, solvedPath);
 			}
-
-			// Next path in array
-			counter++;
-
+			shortestPath = orient(solvedPath);
 		}
 
-		// Array with the shortest path nodes created from the shortest path string
-		shortestPathNodes = getShortestPathNodes(nodes, shortestPath);
-
-		// If shortest path has to be read from right to left on the graph, reverse it
-		if ((numNodes > 1) && (shortestPathNodes[0].getX() > shortestPathNodes[numNodes - 1].getX())) {
-			shortestPath = new StringBuilder(reverseString(shortestPath.toString()));
+		// List of paths in increasing order of weight, rendered lazily by the side pane
+		List<Path> shortestPaths;
+		String pathsNote = null;
+		if (!isExact()) {
+			shortestPaths = List.of(shortestPath);
+			pathsNote = "Showing approximate shortest path only";
+		} else if (!listPaths) {
+			shortestPaths = List.of(shortestPath);
+			pathsNote = "Showing shortest path only";
+		} else if (listShortestPaths) {
+			// Shortest path shown while the list is built, which takes far longer than finding it
+			shorterPaths.accept(shortestPath);
+			BranchAndBound listSolver = new BranchAndBound(distanceMatrix, PATH_LIST_SIZE);
+			listSolver.setParallelism(parallelism);
+			try (Phase phase = Phase.start("enumeration").setNumNodes(numNodes)) {
+				listSolver.solve();
+				phase.setNumPathsEvaluated(listSolver.getNumEvaluations());
+			}
+			shortestPaths = listSolver.getShortestPaths();
+			if (BigInteger.valueOf(shortestPaths.size()).compareTo(getNumPaths()) < 0) {
+				pathsNote = "Showing " + new DecimalFormat("###,###").format(shortestPaths.size()) + " shortest paths";
+			}
+		} else {
+			try (Phase phase = Phase.start("enumeration").setNumNodes(numNodes)) {
+				shortestPaths = new RankedPaths(distanceMatrix, parallelism);
+				phase.setNumPathsEvaluated(shortestPaths.size());
+			}
 		}
 
-	}
+		// Only read once solving is over
+		return new Solution(shortestPath, shortestPaths, pathsNote, isExact());
 
-	public void findCoordinates() {
-		int numNodes = getNumNodes();
-		x = new double[numNodes];
-		y = new double[numNodes];
-		int index = 0;
-		for (Node node : getNodes()) {
-			x[index] = node.getX();
-			y[index] = node.getY();
-			index++;
-		}
 	}
 
-	public String getShortestPath() {
-		return shortestPath.toString();
+	private Path orient(Path path) {
+		// If path has to be read from right to left on the graph, reverse it
+		int numNodes = path.getNumNodes();
+		if ((numNodes > 1) && (model.getX(path.getNode(0)) > model.getX(path.getNode(numNodes - 1)))) {
+			return path.reverse();
+		}
+		return path;
 	}
 
-	public double getShortestPathWeight() {
-		return shortestPathWeight;
-	}
+	public List<Edge> setPathEdges(Path path) {
 
-	public void highlightShortestPath() {
-		for (Edge edge : edgeSet) {
-			Node firstNode = edge.getFirstNode();
-			Node secondNode = edge.getSecondNode();
-			for (int i = 0; i < getNumNodes() - 1; i++) {
-				if ((firstNode == shortestPathNodes[i] && secondNode == shortestPathNodes[i + 1]) || (secondNode == shortestPathNodes[i] && firstNode == shortestPathNodes[i + 1])) {
-					edge.highlight();
-					break;
-				}
-			}
+		// Large and sparse graphs get views for the edges of the path, complete graphs already have them all
+		List<Edge> changedEdges = new ArrayList<>();
+		if (completeGraph) {
+			return changedEdges;
 		}
-	}
 
-	private Node[] getShortestPathNodes(Node[] nodes, StringBuilder shortestPath) {
-		int numNodes = getNumNodes();
-		Node[] shortestPathNodes = new Node[numNodes];
-		String[] shortestPathNodeIndices = shortestPath.toString().split("-");
-		for (int i = 0; i < numNodes; i++) {
-			for (int j = 0; j < numNodes; j++) {
-				if (shortestPathNodeIndices[i].equals(nodes[j].getIndex())) {
-					shortestPathNodes[i] = nodes[j];
-					break;
-				}
+		// Keep the edges shared with the previous path and replace the others
+		Set<Long> pathPairs = getPathPairs(path);
+		Iterator<Map.Entry<Long, Edge>> iterator = pathEdges.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Long, Edge> entry = iterator.next();
+			if (!pathPairs.contains(entry.getKey())) {
+				Edge edge = entry.getValue();
+				edgeSet.remove(edge);
+				nodeMap.get(edge.getFirstNode()).remove(edge);
+				nodeMap.get(edge.getSecondNode()).remove(edge);
+				changedEdges.add(edge);
+				iterator.remove();
 			}
 		}
-		return shortestPathNodes;
-	}
-
-	private Node getClosestNode(double x, double y) {
-		Node node = new Node("", x, y);
-		for (Node otherNode : getNodes()) {
-			if (areNodesOverlapping(node, otherNode)) {
-				return otherNode;
+		for (int i = 0; i < path.getNumNodes() - 1; i++) {
+			int first = path.getNode(i);
+			int second = path.getNode(i + 1);
+			if (!pathEdges.containsKey(getPair(first, second)) && !drawnEdges.containsKey(getPair(first, second))) {
+				Edge edge = new Edge(nodes[first], nodes[second], model.getDistance(first, second));
+				addEdge(nodes[first], nodes[second], edge);
+				pathEdges.put(getPair(first, second), edge);
+				changedEdges.add(edge);
 			}
 		}
-		return null;
-	}
 
-	private boolean areNodesOverlapping(Node node, Node otherNode) {
-		double distance = Math.sqrt((Math.abs((node.getX() - otherNode.getX())) * Math.abs((node.getX() - otherNode.getX()))) + (Math.abs(node.getY() - otherNode.getY())) * (Math.abs(node.getY() - otherNode.getY())));
-		return (distance <= (node.getRadius() * 3));
+		// Edges removed and added
+		return changedEdges;
+
 	}
 
-	private boolean containsEdge(Node firstNode, Node secondNode) {
-		for (Edge edge : nodeMap.get(firstNode)) {
-			if (nodeMap.get(secondNode).contains(edge)) {
-				return true;
+	public Set<Edge> getPathEdges(Path path) {
+		// Drawn edges along the path
+		Set<Long> pathPairs = getPathPairs(path);
+		Set<Edge> edges = new HashSet<>();
+		for (Edge edge : edgeSet) {
+			if (pathPairs.contains(getPair(edge.getFirstNode().getId(), edge.getSecondNode().getId()))) {
+				edges.add(edge);
 			}
 		}
-		return false;
+		return edges;
 	}
 
-	private int factorial(int num) {
-		if (num == 0) {
-			return 1;
-		} else {
-			return (num * factorial(num - 1));
+	private Set<Long> getPathPairs(Path path) {
+		// Node pairs along the path, smaller node first
+		Set<Long> pathPairs = new HashSet<>();
+		for (int i = 0; i < path.getNumNodes() - 1; i++) {
+			pathPairs.add(getPair(path.getNode(i), path.getNode(i + 1)));
 		}
+		return pathPairs;
 	}
 
-	private String reverseString(String string) {
-		StringBuilder reversedString = new StringBuilder();
-		for (int i = 0; i < string.length(); i++) {
-			reversedString.insert(0, string.charAt(i));
-		}
-		return reversedString.toString();
+	private static long getPair(long first, long second) {
+		return (Math.min(first, second) << 32) | Math.max(first, second);
 	}
 
 	public void clear() {
 		edgeSet = new LinkedHashSet<>();
 		nodeMap = new LinkedHashMap<>();
+		drawnEdges = new HashMap<>();
+		pathEdges = new HashMap<>();
 	}
 
 }
@@ -0,0 +1,421 @@
+package com.abhijeet;
+
+import com.abhijeet.core.GraphEdit;
+import com.abhijeet.core.GraphModel;
+import com.abhijeet.core.Path;
+import com.abhijeet.core.Phase;
+import com.abhijeet.core.SpatialGrid;
+import javafx.animation.PauseTransition;
+import javafx.application.Platform;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.Tooltip;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.Pane;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+import javafx.util.Duration;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public class GraphPane extends Pane {
+
+	// Colours and widths of plain and highlighted edges
+	private static final Color EDGE_COLOR = Color.web("#E0E0E0");
+	private static final Color PATH_COLOR = Color.web("#1D35B4");
+	private static final double EDGE_WIDTH = 3;
+	private static final double PATH_WIDTH = 5;
+
+	// Colours of nodes
+	private static final Color NODE_COLOR = Color.web("#1D35B4");
+	private static final Color NODE_STROKE_COLOR = Color.web("#FFFFFF");
+
+	// Smallest node radius with the label drawn on the node
+	private static final int LABEL_RADIUS = 12;
+
+	// Distance in pixels from an edge that still picks it
+	private static final double PICK_DISTANCE = 4;
+
+	// Side in pixels of the cells indexing edges for picking
+	private static final double PICK_CELL_SIZE = 40;
+
+	private final Canvas canvas;
+	private final GraphicsContext context;
+	private final Font labelFont;
+	private final Tooltip tooltip;
+	private final PauseTransition tooltipDelay;
+	private final HighlightScheduler highlightScheduler = new HighlightScheduler();
+	private Graph graph;
+	private SpatialGrid nodeIndex;
+	private List<List<Edge>> edgeIndex;
+	private int numColumns, numRows;
+	private Object picked;
+	private Consumer<GraphEdit> onEdit = edit -> {
+	};
+	private int pressedNode = -1;
+	private double dirtyMinX, dirtyMinY, dirtyMaxX, dirtyMaxY;
+	private boolean redrawScheduled;
+
+	public GraphPane() {
+
+		// Single canvas filling the pane instead of one scene node per node and edge, without driving its size
+		canvas = new Canvas();
+		canvas.setManaged(false);
+		canvas.widthProperty().bind(widthProperty());
+		canvas.heightProperty().bind(heightProperty());
+		canvas.widthProperty().addListener(observable -> redraw());
+		canvas.heightProperty().addListener(observable -> redraw());
+		context = canvas.getGraphicsContext2D();
+		getChildren().add(canvas);
+
+		// Same font as the rest of the app
+		Font font = Font.loadFont(GraphPane.class.getResourceAsStream("/roboto.ttf"), 20);
+		labelFont = (font != null) ? font : Font.font(20);
+
+		// One tooltip for whatever is under the pointer
+		tooltip = new Tooltip();
+		tooltipDelay = new PauseTransition(Duration.seconds(0.25));
+		setOnMouseMoved(event -> pick(event.getX(), event.getY(), event.getScreenX(), event.getScreenY()));
+		setOnMouseExited(event -> pick(Double.NaN, Double.NaN, 0, 0));
+
+		// Click to add a node, drag a node to move it
+		setOnMousePressed(event -> {
+			pressedNode = ((graph != null) && event.isPrimaryButtonDown()) ? nodeIndex.findNearest(event.getX(), event.getY(), graph.getModel().getNodeRadius() * 1.1) : -1;
+		});
+		setOnMouseDragged(event -> {
+			if (pressedNode != -1) {
+				edit(graph.getModel().moveNode(pressedNode, clampX(event.getX()), clampY(event.getY())));
+			}
+		});
+		setOnMouseReleased(event -> {
+			boolean click = (event.getButton() == MouseButton.PRIMARY) && event.isStillSincePress();
+			if ((graph != null) && click && (pressedNode == -1) && (graph.getNumNodes() < Graph.MAX_NODES)) {
+				edit(graph.getModel().addNode(clampX(event.getX()), clampY(event.getY())));
+			}
+			pressedNode = -1;
+		});
+
+		resetDirtyRegion();
+
+	}
+
+	public void setGraph(Graph graph) {
+
+		this.graph = graph;
+		highlightScheduler.clear();
+		picked = null;
+		tooltipDelay.stop();
+		tooltip.hide();
+
+		if (graph != null) {
+
+			// Nodes indexed by their coordinates
+			GraphModel model = graph.getModel();
+			int numNodes = model.getNumNodes();
+			double[] x = new double[numNodes];
+			double[] y = new double[numNodes];
+			for (int id = 0; id < numNodes; id++) {
+				x[id] = model.getX(id);
+				y[id] = model.getY(id);
+			}
+			nodeIndex = SpatialGrid.of(x, y);
+
+			// Edges indexed by the cells they cross, over the whole coordinate range
+			numColumns = (int) Math.ceil((GraphModel.MAX_X + GraphModel.MIN_X) / PICK_CELL_SIZE);
+			numRows = (int) Math.ceil((GraphModel.MAX_Y + GraphModel.MIN_Y) / PICK_CELL_SIZE);
+			edgeIndex = new ArrayList<>(numColumns * numRows);
+			for (int cell = 0; cell < numColumns * numRows; cell++) {
+				edgeIndex.add(new ArrayList<>());
+			}
+			for (Edge edge : graph.getEdges()) {
+				watch(edge);
+				indexEdge(edge, true);
+			}
+
+		}
+
+		redraw();
+
+	}
+
+	public void clear() {
+		setGraph(null);
+	}
+
+	public void setOnEdit(Consumer<GraphEdit> onEdit) {
+		// Called with the edited graph whenever a node is added, moved or removed
+		this.onEdit = onEdit;
+	}
+
+	public void removePickedNode() {
+		// Node under the pointer, the last one is kept
+		if ((picked instanceof Node node) && (graph.getNumNodes() > 1)) {
+			edit(graph.getModel().removeNode(node.getId()));
+		}
+	}
+
+	private void edit(GraphEdit edit) {
+		// Tooltip would show the node before the edit
+		tooltipDelay.stop();
+		tooltip.hide();
+		onEdit.accept(edit);
+	}
+
+	private static double clampX(double x) {
+		return Math.max(GraphModel.MIN_X, Math.min(GraphModel.MAX_X, x));
+	}
+
+	private static double clampY(double y) {
+		return Math.max(GraphModel.MIN_Y, Math.min(GraphModel.MAX_Y, y));
+	}
+
+	public void updateEdges(Collection<Edge> changedEdges) {
+		// Edges added to or removed from the graph, only their regions are redrawn
+		for (Edge edge : changedEdges) {
+			boolean added = graph.getEdges().contains(edge);
+			if (added) {
+				watch(edge);
+			}
+			indexEdge(edge, added);
+			markDirty(edge);
+		}
+	}
+
+	public void highlightPath(Path path) {
+		highlightPath(path, true);
+	}
+
+	public void highlightPath(Path path, boolean fade) {
+		// Fade in the edges along the path, or show them at once, and drop the ones it no longer uses, all on one timeline
+		Set<Edge> pathEdges = graph.getPathEdges(path);
+		for (Edge edge : graph.getEdges()) {
+			if (pathEdges.contains(edge)) {
+				highlightScheduler.highlight(edge, fade);
+			} else {
+				highlightScheduler.unhighlight(edge);
+			}
+		}
+	}
+
+	private void watch(Edge edge) {
+		// Redraw the edge region as its highlight fades in or out
+		edge.highlightProperty().addListener((observable, oldValue, newValue) -> markDirty(edge));
+	}
+
+	public void redraw() {
+		markDirty(0, 0, canvas.getWidth(), canvas.getHeight());
+	}
+
+	private void markDirty(Edge edge) {
+		double margin = PATH_WIDTH / 2 + 1;
+		Node firstNode = edge.getFirstNode();
+		Node secondNode = edge.getSecondNode();
+		markDirty(Math.min(firstNode.getX(), secondNode.getX()) - margin, Math.min(firstNode.getY(), secondNode.getY()) - margin,
+				Math.max(firstNode.getX(), secondNode.getX()) + margin, Math.max(firstNode.getY(), secondNode.getY()) + margin);
+	}
+
+	private void markDirty(double minX, double minY, double maxX, double maxY) {
+
+		// Grow the region redrawn on the next pulse
+		dirtyMinX = Math.min(dirtyMinX, minX);
+		dirtyMinY = Math.min(dirtyMinY, minY);
+		dirtyMaxX = Math.max(dirtyMaxX, maxX);
+		dirtyMaxY = Math.max(dirtyMaxY, maxY);
+
+		// Changes in the same pulse are drawn together
+		if (!redrawScheduled) {
+			redrawScheduled = true;
+			Platform.runLater(this::redrawDirtyRegion);
+		}
+
+	}
+
+	private void resetDirtyRegion() {
+		dirtyMinX = dirtyMinY = Double.POSITIVE_INFINITY;
+		dirtyMaxX = dirtyMaxY = Double.NEGATIVE_INFINITY;
+	}
+
+	private void redrawDirtyRegion() {
+
+		redrawScheduled = false;
+
+		// Whole pixels, so no antialiased seam is left around the region
+		double minX = Math.max(Math.floor(dirtyMinX), 0);
+		double minY = Math.max(Math.floor(dirtyMinY), 0);
+		double maxX = Math.min(Math.ceil(dirtyMaxX), canvas.getWidth());
+		double maxY = Math.min(Math.ceil(dirtyMaxY), canvas.getHeight());
+		resetDirtyRegion();
+		if ((minX >= maxX) || (minY >= maxY)) {
+			return;
+		}
+
+		try (Phase phase = Phase.start("redraw")) {
+
+			// Only draw inside the dirty region
+			context.save();
+			context.beginPath();
+			context.rect(minX, minY, maxX - minX, maxY - minY);
+			context.clip();
+			context.clearRect(minX, minY, maxX - minX, maxY - minY);
+
+			if (graph != null) {
+
+				// Plain edges behind highlighted ones
+				for (int pass = 0; pass < 2; pass++) {
+					for (Edge edge : graph.getEdges()) {
+						if (((edge.getHighlight() > 0) == (pass == 1)) && isEdgeInRegion(edge, minX, minY, maxX, maxY)) {
+							drawEdge(edge);
+						}
+					}
+				}
+
+				// Nodes on top of all edges
+				GraphModel model = graph.getModel();
+				double margin = model.getNodeRadius() * 1.1 + 1;
+				for (int id = 0; id < model.getNumNodes(); id++) {
+					double x = model.getX(id);
+					double y = model.getY(id);
+					if ((x + margin >= minX) && (x - margin <= maxX) && (y + margin >= minY) && (y - margin <= maxY)) {
+						drawNode(model, id);
+					}
+				}
+
+			}
+
+			context.restore();
+
+		}
+
+	}
+
+	private boolean isEdgeInRegion(Edge edge, double minX, double minY, double maxX, double maxY) {
+		double margin = PATH_WIDTH / 2;
+		Node firstNode = edge.getFirstNode();
+		Node secondNode = edge.getSecondNode();
+		return (Math.max(firstNode.getX(), secondNode.getX()) + margin >= minX) && (Math.min(firstNode.getX(), secondNode.getX()) - margin <= maxX)
+				&& (Math.max(firstNode.getY(), secondNode.getY()) + margin >= minY) && (Math.min(firstNode.getY(), secondNode.getY()) - margin <= maxY);
+	}
+
+	private void drawEdge(Edge edge) {
+		// Fade from the plain colour to the path colour, wider as soon as the fade starts
+		double highlight = edge.getHighlight();
+		context.setStroke(EDGE_COLOR.interpolate(PATH_COLOR, highlight));
+		context.setLineWidth((highlight > 0) ? PATH_WIDTH : EDGE_WIDTH);
+		context.strokeLine(edge.getFirstNode().getX(), edge.getFirstNode().getY(), edge.getSecondNode().getX(), edge.getSecondNode().getY());
+	}
+
+	private void drawNode(GraphModel model, int id) {
+
+		// Circle with a white border
+		double x = model.getX(id);
+		double y = model.getY(id);
+		int radius = model.getNodeRadius();
+		context.setFill(NODE_COLOR);
+		context.fillOval(x - radius, y - radius, 2 * radius, 2 * radius);
+		context.setStroke(NODE_STROKE_COLOR);
+		context.setLineWidth(radius / 5.0);
+		context.strokeOval(x - radius, y - radius, 2 * radius, 2 * radius);
+
+		// Index, only drawn if it fits on the circle
+		if (radius >= LABEL_RADIUS) {
+			context.setFill(Color.WHITE);
+			context.setFont(labelFont);
+			context.setTextAlign(TextAlignment.CENTER);
+			context.setTextBaseline(VPos.CENTER);
+			context.fillText(model.getLabel(id), x, y);
+		}
+
+	}
+
+	private void indexEdge(Edge edge, boolean add) {
+
+		// Cells close enough to the edge for any point in them to pick it
+		double x1 = edge.getFirstNode().getX();
+		double y1 = edge.getFirstNode().getY();
+		double x2 = edge.getSecondNode().getX();
+		double y2 = edge.getSecondNode().getY();
+		double reach = PICK_CELL_SIZE * Math.sqrt(0.5) + PATH_WIDTH / 2 + PICK_DISTANCE;
+		int minColumn = getColumn(Math.min(x1, x2) - reach);
+		int maxColumn = getColumn(Math.max(x1, x2) + reach);
+		int minRow = getRow(Math.min(y1, y2) - reach);
+		int maxRow = getRow(Math.max(y1, y2) + reach);
+
+		for (int row = minRow; row <= maxRow; row++) {
+			for (int column = minColumn; column <= maxColumn; column++) {
+				double centerX = (column + 0.5) * PICK_CELL_SIZE;
+				double centerY = (row + 0.5) * PICK_CELL_SIZE;
+				if (getSegmentDistance(centerX, centerY, x1, y1, x2, y2) <= reach) {
+					List<Edge> cell = edgeIndex.get(row * numColumns + column);
+					if (add) {
+						cell.add(edge);
+					} else {
+						cell.remove(edge);
+					}
+				}
+			}
+		}
+
+	}
+
+	private void pick(double x, double y, double screenX, double screenY) {
+
+		// Node under the pointer, otherwise the nearest edge close enough
+		Object target = null;
+		if ((graph != null) && !Double.isNaN(x)) {
+			GraphModel model = graph.getModel();
+			int node = nodeIndex.findNearest(x, y, model.getNodeRadius() * 1.1);
+			if (node != -1) {
+				target = graph.getNode(node);
+			} else {
+				double nearestDistance = PATH_WIDTH / 2 + PICK_DISTANCE;
+				for (Edge edge : edgeIndex.get(getRow(y) * numColumns + getColumn(x))) {
+					double distance = getSegmentDistance(x, y, edge.getFirstNode().getX(), edge.getFirstNode().getY(), edge.getSecondNode().getX(), edge.getSecondNode().getY());
+					if (distance <= nearestDistance) {
+						target = edge;
+						nearestDistance = distance;
+					}
+				}
+			}
+		}
+
+		// Same target, leave the tooltip where it is
+		if (target == picked) {
+			return;
+		}
+		picked = target;
+		tooltipDelay.stop();
+		tooltip.hide();
+
+		// Hover to display node coordinates or edge weight
+		if (target != null) {
+			tooltip.setText(target.toString());
+			tooltipDelay.setOnFinished(event -> tooltip.show(this, screenX + 10, screenY + 10));
+			tooltipDelay.playFromStart();
+		}
+
+	}
+
+	private int getColumn(double x) {
+		return Math.max(0, Math.min(numColumns - 1, (int) (x / PICK_CELL_SIZE)));
+	}
+
+	private int getRow(double y) {
+		return Math.max(0, Math.min(numRows - 1, (int) (y / PICK_CELL_SIZE)));
+	}
+
+	private static double getSegmentDistance(double x, double y, double x1, double y1, double x2, double y2) {
+		// Distance from a point to the closest point of a segment
+		double dx = x2 - x1;
+		double dy = y2 - y1;
+		double lengthSquared = dx * dx + dy * dy;
+		double t = (lengthSquared == 0) ? 0 : Math.max(0, Math.min(1, ((x - x1) * dx + (y - y1) * dy) / lengthSquared));
+		return Math.hypot(x - (x1 + t * dx), y - (y1 + t * dy));
+	}
+
+}
@@ -0,0 +1,98 @@
+package com.abhijeet;
+
+import javafx.animation.Animation;
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.util.Duration;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class HighlightScheduler {
+
+	// Delay before an edge starts fading in, and length of the fade
+	private static final long DELAY = 25_000_000;
+	private static final long FADE = 500_000_000;
+
+	// Time between two animation steps, about one frame
+	private static final Duration STEP = Duration.millis(1000 / 60.0);
+
+	// Edges fading in and the time their fade starts
+	private final Map<Edge, Long> fadeStarts = new LinkedHashMap<>();
+	private final Timeline timeline;
+
+	public HighlightScheduler() {
+		// One timeline on the JavaFX thread steps every fading edge, running only while there is one
+		timeline = new Timeline(new KeyFrame(STEP, event -> step()));
+		timeline.setCycleCount(Animation.INDEFINITE);
+	}
+
+	public void highlight(Edge edge) {
+		highlight(edge, true);
+	}
+
+	public void highlight(Edge edge, boolean fade) {
+
+		// Already highlighted or fading in from an earlier path
+		if (edge.isHighlighted()) {
+			return;
+		}
+		edge.setHighlighted(true);
+
+		// Fully highlighted at once, as when the graph is being edited
+		if (!fade) {
+			edge.highlightProperty().set(1);
+			return;
+		}
+
+		// Fade in the shortest path
+		fadeStarts.put(edge, System.nanoTime() + DELAY);
+		if (timeline.getStatus() != Animation.Status.RUNNING) {
+			timeline.play();
+		}
+
+	}
+
+	public void unhighlight(Edge edge) {
+
+		// Not part of the path any more
+		if (!edge.isHighlighted()) {
+			return;
+		}
+		edge.setHighlighted(false);
+
+		// Back to a plain edge at once, even halfway through its fade
+		fadeStarts.remove(edge);
+		edge.highlightProperty().set(0);
+
+	}
+
+	public void clear() {
+		fadeStarts.clear();
+		timeline.stop();
+	}
+
+	private void step() {
+
+		long now = System.nanoTime();
+		Iterator<Map.Entry<Edge, Long>> iterator = fadeStarts.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Map.Entry<Edge, Long> entry = iterator.next();
+			double progress = (double) (now - entry.getValue()) / FADE;
+			if (progress >= 1) {
+				entry.getKey().highlightProperty().set(1);
+				iterator.remove();
+			} else if (progress > 0) {
+				entry.getKey().highlightProperty().set(progress);
+			}
+		}
+
+		// Nothing left to fade
+		if (fadeStarts.isEmpty()) {
+			timeline.stop();
+		}
+
+	}
+
+}
@@ -1,78 +1,50 @@
 package com.abhijeet;
 
-import javafx.scene.control.Label;
-import javafx.scene.control.Tooltip;
-import javafx.scene.layout.StackPane;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Circle;
-import javafx.util.Duration;
+import com.abhijeet.core.GraphModel;
 
 public class Node {
 
-	private final String index;
-	private final Circle circle;
-	private final StackPane pane;
-	private final int radius = 20;
+	private final GraphModel model;
+	private final int id;
+	private final int radius;
 
-	public Node(String index, double x, double y) {
+	public Node(GraphModel model, int id) {
 
-		// Set index
-		this.index = index;
-		Label indexLabel = new Label(index);
-		indexLabel.setId("node-label");
+		// Set model node, drawn by the graph pane
+		this.model = model;
+		this.id = id;
+		radius = model.getNodeRadius();
 
-		// Draw circle at coordinates
-		circle = new Circle(x, y, radius);
-		circle.setStrokeWidth(4);
-		circle.setFill(Color.web("#1D35B4"));
-		circle.setStroke(Color.web("#FFFFFF"));
-
-		// Add index on circle
-		pane = new StackPane();
-		pane.getChildren().addAll(circle, indexLabel);
-		pane.setTranslateX(x - radius);
-		pane.setTranslateY(y - radius);
-		pane.toFront();
-
-		// Hover to display coordinates
-		Tooltip tooltip = new Tooltip(this.toString());
-		tooltip.setShowDelay(Duration.seconds(0.25));
-		Tooltip.install(pane, tooltip);
+	}
 
+	public int getId() {
+		// Index into the model
+		return id;
 	}
 
 	public String getIndex() {
 		// Alphabetic index
-		return index;
+		return model.getLabel(id);
 	}
 
 	public double getX() {
 		// X-coordinate
-		return circle.getCenterX();
+		return model.getX(id);
 	}
 
 	public double getY() {
 		// Y-coordinate
-		return circle.getCenterY();
-	}
-
-	public StackPane getCircle() {
-		return pane;
+		return model.getY(id);
 	}
 
 	public int getRadius() {
 		return radius;
 	}
 
-	public void toFront() {
-		// Move to front of the Z-axis
-		pane.toFront();
-	}
-
 	@Override
 	public String toString() {
-		// Display when hovering over node
-		return "Node " + getIndex() + " (" + (int) circle.getCenterX() + ", " + (int) circle.getCenterY() + ")";
+		// Display when hovering over node on the graph pane
+		return "Node " + getIndex() + " (" + (int) getX() + ", " + (int) getY() + ")";
 	}
 
 	@Override
@@ -90,15 +62,15 @@ public class Node {
 			return false;
 		}
 
-		// Two nodes are the same object if they have the same coordinates
-		return ((getX() == other.getX()) && (getY() == other.getY()));
+		// Two nodes are the same object if they are the same model node, wherever they are placed
+		return (id == other.id);
 
 	}
 
 	@Override
 	public int hashCode() {
 		// Instance ID
-		return (int) (getX() + getY());
+		return Integer.hashCode(id);
 	}
 
 }
@@ -0,0 +1,60 @@
+package com.abhijeet;
+
+import com.abhijeet.core.GraphModel;
+import com.abhijeet.core.Path;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.layout.VBox;
+
+import java.text.DecimalFormat;
+
+public class PathCell extends ListCell<Path> {
+
+	// Longer paths are cut short in the list
+	private static final int MAX_PATH_NODES = 40;
+
+	private final GraphModel model;
+	private final VBox pane;
+	private final Label indexLabel;
+	private final Label pathLabel;
+	private final Label weightLabel;
+	private final DecimalFormat formatter = new DecimalFormat("###,###");
+
+	public PathCell(GraphModel model) {
+
+		// Set model used to render node labels
+		this.model = model;
+
+		// Labels are created once and reused as the cell is recycled
+		indexLabel = new Label();
+		indexLabel.setId("path-list-index");
+		pathLabel = new Label();
+		pathLabel.setId("path-list-item");
+		pathLabel.setMaxWidth(175);
+		pathLabel.setWrapText(true);
+		weightLabel = new Label();
+		weightLabel.setId("path-list-item-weight");
+		pane = new VBox(indexLabel, pathLabel, weightLabel);
+
+	}
+
+	@Override
+	protected void updateItem(Path path, boolean empty) {
+
+		super.updateItem(path, empty);
+		setText(null);
+
+		if (empty || (path == null)) {
+			setGraphic(null);
+			return;
+		}
+
+		// Render only the rows being displayed
+		indexLabel.setText(formatter.format(getIndex() + 1L) + ".");
+		pathLabel.setText("  " + model.getPathString(path, MAX_PATH_NODES));
+		weightLabel.setText("    " + formatter.format(path.getWeight()) + " px");
+		setGraphic(pane);
+
+	}
+
+}
@@ -0,0 +1,16 @@
+package com.abhijeet;
+
+import com.abhijeet.core.Path;
+
+import java.util.Collections;
+import java.util.List;
+
+// Result of one solve, handed from the solving thread to the JavaFX thread as is
+public record Solution(Path shortestPath, List<Path> shortestPaths, String pathsNote, boolean exact) {
+
+	public Solution {
+		// Read-only view, so no thread can change the list once it is published
+		shortestPaths = Collections.unmodifiableList(shortestPaths);
+	}
+
+}
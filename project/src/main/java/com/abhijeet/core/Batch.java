@@ -0,0 +1,274 @@
+package com.abhijeet.core;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.*;
+
+public class Batch {
+
+	private static final String USAGE = """
+			Usage: java -cp <classes> com.abhijeet.core.Batch [options] [file...]
+			Solves random graphs, or the graphs in the given files (.tsp TSPLIB, .gxb binary, else one "x y" node per line), and writes one CSV row per graph.
+			  --instances <n>     random graphs to solve, ignored when files are given (default 100)
+			  --min-nodes <n>     fewest nodes of a random graph (default 5)
+			  --max-nodes <n>     most nodes of a random graph (default 12)
+			  --seed <n>          seed of the first random graph, each next graph uses the next seed (default 0)
+			  --solver <name>     auto, exact, held-karp, branch-and-bound, nearest-neighbour, local-search or iterated-local-search (default auto)
+			  --time-limit <ms>   time spent by iterated local search on each graph (default 2000)
+			  --threads <n>       graphs solved at once (default number of cores)
+			  --output <file>     CSV file written instead of standard output
+			  --cache-size <n>    solved graphs kept to answer repeated graphs at once (default 0, no cache)
+			  --cache-file <file> cache loaded before and saved after the run, needs --cache-size""";
+
+	private static final String HEADER = "instance,nodes,weight,path,solve_ms,paths_explored";
+
+	private static final List<String> OPTIONS = List.of("--instances", "--min-nodes", "--max-nodes", "--seed", "--solver", "--time-limit", "--threads", "--output",
+			"--cache-size", "--cache-file");
+	private static final List<String> SOLVERS = List.of("auto", "exact", "held-karp", "branch-and-bound", "nearest-neighbour", "local-search", "iterated-local-search");
+
+	private int numInstances = 100;
+	private int minNodes = 5;
+	private int maxNodes = 12;
+	private long seed;
+	private String solverName = "auto";
+	private long timeLimit = IteratedLocalSearch.DEFAULT_TIME_LIMIT;
+	private int numThreads = Runtime.getRuntime().availableProcessors();
+	private String output;
+	private int cacheSize;
+	private String cacheFile;
+	private SolveCache cache;
+	private final List<String> files = new ArrayList<>();
+
+	// Java calls the "main" function, no JavaFX class is touched
+	public static void main(String[] args) {
+
+		Batch batch = new Batch();
+		try {
+			if (!batch.parse(args)) {
+				// Usage asked for, not an error
+				System.out.println(USAGE);
+				System.exit(0);
+			}
+		} catch (IllegalArgumentException exception) {
+			System.err.println(exception.getMessage());
+			System.err.println(USAGE);
+			System.exit(2);
+		}
+
+		try {
+			int numFailed = batch.run();
+			System.exit((numFailed == 0) ? 0 : 1);
+		} catch (IOException exception) {
+			System.err.println("Cannot write results: " + exception.getMessage());
+			System.exit(1);
+		}
+
+	}
+
+	private boolean parse(String[] args) {
+
+		for (int i = 0; i < args.length; i++) {
+			String arg = args[i];
+			if (!arg.startsWith("--")) {
+				files.add(arg);
+				continue;
+			}
+			if (arg.equals("--help")) {
+				return false;
+			}
+			if (!OPTIONS.contains(arg)) {
+				throw new IllegalArgumentException("Unknown option " + arg);
+			}
+			if (i + 1 == args.length) {
+				throw new IllegalArgumentException("Missing value for " + arg);
+			}
+			String value = args[++i];
+			switch (arg) {
+				case "--instances" -> numInstances = parseInt(arg, value, 0);
+				case "--min-nodes" -> minNodes = parseInt(arg, value, 1);
+				case "--max-nodes" -> maxNodes = parseInt(arg, value, 1);
+				case "--seed" -> seed = parseLong(arg, value);
+				case "--solver" -> solverName = value;
+				case "--time-limit" -> timeLimit = Math.max(parseLong(arg, value), 0);
+				case "--threads" -> numThreads = parseInt(arg, value, 1);
+				case "--output" -> output = value;
+				case "--cache-size" -> cacheSize = parseInt(arg, value, 0);
+				case "--cache-file" -> cacheFile = value;
+				default -> throw new IllegalArgumentException("Unknown option " + arg);
+			}
+		}
+
+		if ((cacheFile != null) && (cacheSize == 0)) {
+			throw new IllegalArgumentException("--cache-file needs a --cache-size greater than 0");
+		}
+		if (minNodes > maxNodes) {
+			throw new IllegalArgumentException("--min-nodes is greater than --max-nodes");
+		}
+		if (!SOLVERS.contains(solverName)) {
+			throw new IllegalArgumentException("Unknown solver " + solverName);
+		}
+		return true;
+
+	}
+
+	private static int parseInt(String option, String value, int min) {
+		long number = parseLong(option, value);
+		if ((number < min) || (number > Integer.MAX_VALUE)) {
+			throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+		}
+		return (int) number;
+	}
+
+	private static long parseLong(String option, String value) {
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException exception) {
+			throw new IllegalArgumentException("Invalid value for " + option + ": " + value);
+		}
+	}
+
+	private int run() throws IOException {
+
+		// Repeated graphs, within the run or from a saved cache, are answered without solving
+		cache = new SolveCache(cacheSize);
+		if ((cacheFile != null) && Files.exists(java.nio.file.Path.of(cacheFile))) {
+			cache.load(java.nio.file.Path.of(cacheFile));
+		}
+
+		// Each graph is generated or read, solved and formatted on its own worker, so only the rows wait in memory
+		int numTasks = files.isEmpty() ? numInstances : files.size();
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads, runnable -> {
+			Thread thread = new Thread(runnable, "graphx-batch");
+			thread.setDaemon(true);
+			return thread;
+		});
+		CompletionService<String> rows = new ExecutorCompletionService<>(executor);
+		for (int task = 0; task < numTasks; task++) {
+			int instance = task;
+			rows.submit(() -> solve(instance));
+		}
+		executor.shutdown();
+
+		// Rows in the order graphs are solved, the instance column tells them apart
+		int numFailed = 0;
+		OutputStream stream = (output == null) ? System.out : Files.newOutputStream(java.nio.file.Path.of(output));
+		try (PrintWriter writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8)))) {
+			writer.println(HEADER);
+			writer.flush();
+			for (int task = 0; task < numTasks; task++) {
+				try {
+					writer.println(rows.take().get());
+					writer.flush();
+				} catch (ExecutionException exception) {
+					System.err.println(exception.getCause().getMessage());
+					numFailed++;
+				} catch (InterruptedException exception) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Interrupted after " + task + " rows");
+				}
+			}
+			if (writer.checkError()) {
+				throw new IOException("Output stream failed");
+			}
+		}
+
+		if (cacheSize > 0) {
+			System.err.println("Cache: " + cache.getHits() + " hits, " + cache.getMisses() + " misses, " + cache.getEvictions() + " evictions");
+		}
+		if (cacheFile != null) {
+			cache.save(java.nio.file.Path.of(cacheFile));
+		}
+		return numFailed;
+
+	}
+
+	private String solve(int instance) throws IOException {
+
+		// Any failure is reported with the instance it belongs to, and its type when it has no message
+		String name = files.isEmpty() ? Long.toString(seed + instance) : files.get(instance);
+		try {
+			return solve(instance, name);
+		} catch (IOException | RuntimeException exception) {
+			String message = (exception.getMessage() != null) ? exception.getMessage() : exception.toString();
+			throw new IOException("Instance " + name + ": " + message, exception);
+		}
+
+	}
+
+	private String solve(int instance, String name) throws IOException {
+
+		// Random graph from its own seed, so any row can be reproduced alone
+		GraphModel model;
+		Random random = new Random(seed + instance);
+		if (files.isEmpty()) {
+			model = GraphModel.random(minNodes, maxNodes, random);
+		} else {
+			model = InstanceFiles.read(java.nio.file.Path.of(name));
+		}
+
+		if (solverName.equals("held-karp") && (model.getNumNodes() > HeldKarp.MAX_NODES)) {
+			throw new IllegalArgumentException("Too many nodes for held-karp: " + model.getNumNodes());
+		}
+
+		// Timed with the cache lookup and the distances and neighbour lists the solver builds
+		long startTime = System.nanoTime();
+		SolveCache.Key key = (cacheSize > 0) ? SolveCache.key(model, getCacheName(model.getNumNodes())) : null;
+		Path path = (key != null) ? cache.get(key) : null;
+		long numEvaluations = 0;
+		if (path == null) {
+			try (Phase phase = Phase.start("solve").setNumNodes(model.getNumNodes())) {
+				Solver solver = newSolver(model.getDistanceMatrix(), random);
+				solver.solve();
+				numEvaluations = solver.getNumEvaluations();
+				phase.setNumPathsEvaluated(numEvaluations);
+				path = new Path(solver.getShortestPath(), solver.getShortestPathWeight());
+			}
+			if (key != null) {
+				cache.put(key, path);
+			}
+		}
+		double solveTime = (System.nanoTime() - startTime) / 1e6;
+
+		return String.join(",", quote(name), Integer.toString(model.getNumNodes()), String.format(Locale.ROOT, "%.3f", path.getWeight()),
+				model.getPathString(path), String.format(Locale.ROOT, "%.3f", solveTime), Long.toString(numEvaluations));
+
+	}
+
+	private Solver newSolver(DistanceMatrix distanceMatrix, Random random) {
+		return switch (solverName) {
+			// Same solvers as the app, Held-Karp and branch and bound up to their limits in Solvers, improved for the time limit beyond
+			case "auto" -> Solvers.isExact(distanceMatrix.getNumNodes()) ? Solvers.newExactSolver(distanceMatrix) : new IteratedLocalSearch(distanceMatrix, timeLimit, random);
+			case "exact" -> Solvers.newExactSolver(distanceMatrix);
+			case "held-karp" -> new HeldKarp(distanceMatrix);
+			case "branch-and-bound" -> new BranchAndBound(distanceMatrix);
+			case "nearest-neighbour" -> new NearestNeighbour(distanceMatrix);
+			case "local-search" -> new LocalSearch(distanceMatrix);
+			case "iterated-local-search" -> new IteratedLocalSearch(distanceMatrix, timeLimit, random);
+			default -> throw new IllegalStateException("Unknown solver " + solverName);
+		};
+	}
+
+	private String getCacheName(int numNodes) {
+		// Same names as the app, one per kind of result, so a shared cache file answers both
+		return switch (solverName) {
+			case "auto" -> Solvers.isExact(numNodes) ? SolveCache.EXACT : SolveCache.timeLimited("iterated-local-search", timeLimit);
+			case "exact", "held-karp", "branch-and-bound" -> SolveCache.EXACT;
+			case "iterated-local-search" -> SolveCache.timeLimited(solverName, timeLimit);
+			default -> solverName;
+		};
+	}
+
+	private static String quote(String field) {
+		// File names may hold commas or quotes
+		if (field.contains(",") || field.contains("\"") || field.contains("\n")) {
+			return "\"" + field.replace("\"", "\"\"") + "\"";
+		}
+		return field;
+	}
+
+}
@@ -0,0 +1,364 @@
+package com.abhijeet.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+public class BranchAndBound implements Solver {
+
+	// Branches between two checks for interruption, minus one
+	private static final long CANCEL_CHECK_MASK = (1 << 12) - 1;
+
+	private final int numNodes;
+	private final double[] distances;
+	private final int[][] neighbours;
+	private final int numPaths;
+	private int parallelism = 1;
+	private List<Path> shortestPaths;
+	private int[] greedyPath;
+	private double greedyPathWeight;
+	private int[] initialPath;
+	private long numBranches;
+
+	// Shortest paths of the searches done so far, and the lowest pruning threshold known to any search
+	private TopPaths topPaths;
+	private final AtomicLong thresholdBits = new AtomicLong();
+	private volatile boolean cancelled;
+
+	public BranchAndBound(DistanceMatrix distanceMatrix) {
+		this(distanceMatrix, 1);
+	}
+
+	public BranchAndBound(DistanceMatrix distanceMatrix, int numPaths) {
+
+		// Number of shortest paths to keep, the longest one kept is the pruning threshold
+		this.numPaths = numPaths;
+
+		numNodes = distanceMatrix.getNumNodes();
+		distances = distanceMatrix.getDistances();
+
+		// Other nodes sorted from nearest to furthest, so good paths are found early
+		neighbours = new int[numNodes][];
+		for (int node = 0; node < numNodes; node++) {
+			final int current = node;
+			final int row = node * numNodes;
+			neighbours[node] = IntStream.range(0, numNodes)
+					.filter(other -> other != current)
+					.boxed()
+					.sorted(Comparator.comparingDouble(other -> distances[row + other]))
+					.mapToInt(Integer::intValue)
+					.toArray();
+		}
+
+	}
+
+	public void setInitialPath(int[] initialPath) {
+		// Known path, such as the path before an edit, used as the first incumbent if shorter than the greedy one
+		this.initialPath = initialPath;
+	}
+
+	public void setParallelism(int parallelism) {
+		// Threads searching subtrees at once, 1 searches on the calling thread
+		this.parallelism = Math.max(parallelism, 1);
+	}
+
+	@Override
+	public void solve() {
+
+		numBranches = 0;
+		cancelled = false;
+
+		// Greedy path as the first incumbent
+		findGreedyPath();
+		if ((initialPath != null) && (initialPath.length == numNodes)) {
+			double initialPathWeight = 0;
+			for (int i = 0; i < numNodes - 1; i++) {
+				initialPathWeight += distances[initialPath[i] * numNodes + initialPath[i + 1]];
+			}
+			if (initialPathWeight < greedyPathWeight) {
+				greedyPath = initialPath.clone();
+				greedyPathWeight = initialPathWeight;
+			}
+		}
+
+		// Paths are searched and kept starting at their smaller end, as a path and its reverse weigh the same
+		if ((numNodes > 1) && (greedyPath[0] > greedyPath[numNodes - 1])) {
+			for (int i = 0, j = numNodes - 1; i < j; i++, j--) {
+				int swap = greedyPath[i];
+				greedyPath[i] = greedyPath[j];
+				greedyPath[j] = swap;
+			}
+
+			// Summed again in the new order, so the search finding it again adds up the same weight
+			greedyPathWeight = 0;
+			for (int i = 0; i < numNodes - 1; i++) {
+				greedyPathWeight += distances[greedyPath[i] * numNodes + greedyPath[i + 1]];
+			}
+		}
+		topPaths = new TopPaths(numPaths, numNodes);
+		topPaths.offer(greedyPath, greedyPathWeight);
+		thresholdBits.set(Double.doubleToLongBits(topPaths.getThreshold()));
+
+		// Depth-first search from every start node ending at a larger node, or one subtree per first two nodes on a pool
+		List<Search> searches = new ArrayList<>();
+		if ((parallelism == 1) || (numNodes < 3)) {
+			Search search = new Search(-1, -1);
+			search.compute();
+			searches.add(search);
+		} else {
+			for (int start = 0; start < numNodes - 1; start++) {
+				for (int second : neighbours[start]) {
+					searches.add(new Search(start, second));
+				}
+			}
+			invokeAll(searches);
+		}
+
+		// Shortest paths over all subtrees, merged as each search finished
+		for (Search search : searches) {
+			numBranches += search.numBranches;
+		}
+		shortestPaths = topPaths.getPaths();
+
+	}
+
+	private void lowerThreshold(double threshold) {
+		// Non-negative weights order the same as their bits
+		thresholdBits.accumulateAndGet(Double.doubleToLongBits(threshold), Math::min);
+	}
+
+	private synchronized void merge(TopPaths searchPaths) {
+		// Paths of a finished subtree, so later searches prune against all paths found so far
+		topPaths.addAll(searchPaths);
+		lowerThreshold(topPaths.getThreshold());
+	}
+
+	private void invokeAll(List<Search> searches) {
+
+		// Waited for on the calling thread, so interrupting it cancels the tasks
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			pool.submit(() -> ForkJoinTask.invokeAll(searches)).get();
+		} catch (InterruptedException exception) {
+			cancelled = true;
+			Thread.currentThread().interrupt();
+			throw new CancellationException("Search interrupted");
+		} catch (ExecutionException exception) {
+			if (exception.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException(exception.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+
+	}
+
+	private void findGreedyPath() {
+
+		int[] path = new int[numNodes];
+		boolean[] visited = new boolean[numNodes];
+		greedyPath = new int[numNodes];
+		greedyPathWeight = (numNodes == 0) ? 0 : Double.POSITIVE_INFINITY;
+
+		// Nearest neighbour path from each start node, keeping the shortest
+		for (int start = 0; start < numNodes; start++) {
+			Arrays.fill(visited, false);
+			path[0] = start;
+			visited[start] = true;
+			double pathWeight = 0;
+			for (int position = 1; position < numNodes; position++) {
+				int last = path[position - 1];
+				for (int next : neighbours[last]) {
+					if (!visited[next]) {
+						path[position] = next;
+						visited[next] = true;
+						pathWeight += distances[last * numNodes + next];
+						break;
+					}
+				}
+			}
+			if (pathWeight < greedyPathWeight) {
+				System.arraycopy(path, 0, greedyPath, 0, numNodes);
+				greedyPathWeight = pathWeight;
+			}
+		}
+
+	}
+
+	@Override
+	public int[] getShortestPath() {
+		return shortestPaths.get(0).getNodes();
+	}
+
+	@Override
+	public double getShortestPathWeight() {
+		return shortestPaths.get(0).getWeight();
+	}
+
+	@Override
+	public List<Path> getShortestPaths() {
+		return shortestPaths;
+	}
+
+	@Override
+	public long getNumEvaluations() {
+		// Nodes of the search tree visited by the last search
+		return numBranches;
+	}
+
+
+	private class Search extends RecursiveAction {
+
+		// First two nodes of the subtree searched, or -1 to search from every start node
+		private final int start;
+		private final int second;
+		private final int[] path = new int[numNodes];
+		private final boolean[] visited = new boolean[numNodes];
+		private final double[] treeWeights = new double[numNodes];
+		private final boolean[] inTree = new boolean[numNodes];
+		private TopPaths searchPaths;
+		private long numBranches;
+		private int numLaterNodes;
+
+		private Search(int start, int second) {
+			this.start = start;
+			this.second = second;
+		}
+
+		@Override
+		protected void compute() {
+
+			// Allocated once the search runs and dropped once merged, as up to n · (n - 1) searches are queued at once
+			searchPaths = new TopPaths(numPaths, numNodes);
+			if (start == -1) {
+				for (int node = 0; node < numNodes; node++) {
+					setStart(node);
+					findPaths(1, 0);
+					visited[node] = false;
+				}
+			} else {
+				setStart(start);
+				branch(1, 0, second);
+			}
+			merge(searchPaths);
+			searchPaths = null;
+
+		}
+
+		private void setStart(int node) {
+			path[0] = node;
+			visited[node] = true;
+			numLaterNodes = numNodes - 1 - node;
+		}
+
+		private double getThreshold() {
+			// Paths must be shorter than the longest path kept here and than the threshold known to any other search
+			return Math.min(searchPaths.getThreshold(), Double.longBitsToDouble(thresholdBits.get()));
+		}
+
+		private void findPaths(int position, double pathWeight) {
+
+			// Give up once the solving thread is interrupted, checked every few thousand branches
+			if ((++numBranches & CANCEL_CHECK_MASK) == 0 && (cancelled || Thread.currentThread().isInterrupted())) {
+				throw new CancellationException("Search interrupted");
+			}
+			int last = path[position - 1];
+
+			// Complete path, unless it is the greedy path found again
+			if (position == numNodes) {
+				if ((pathWeight != greedyPathWeight) || !Arrays.equals(path, greedyPath)) {
+					if (searchPaths.offer(path, pathWeight)) {
+						lowerThreshold(searchPaths.getThreshold());
+					}
+				}
+				return;
+			}
+
+			// No node larger than the start is left to end the path, only its reverse would be kept
+			if (numLaterNodes == 0) {
+				return;
+			}
+
+			// Any path through the remaining nodes is a spanning tree, so it weighs at least as much as the minimum one
+			if (pathWeight + findTreeWeight(last) >= getThreshold()) {
+				return;
+			}
+
+			// Branch on each unvisited node, nearest first
+			for (int next : neighbours[last]) {
+				if (!visited[next]) {
+					branch(position, pathWeight, next);
+				}
+			}
+
+		}
+
+		private void branch(int position, double pathWeight, int next) {
+
+			// Keep the last node larger than the start for the end
+			boolean later = next > path[0];
+			if (later && (numLaterNodes == 1) && (position < numNodes - 1)) {
+				return;
+			}
+			double nextPathWeight = pathWeight + distances[path[position - 1] * numNodes + next];
+			if (nextPathWeight >= getThreshold()) {
+				return;
+			}
+			path[position] = next;
+			visited[next] = true;
+			numLaterNodes -= later ? 1 : 0;
+			findPaths(position + 1, nextPathWeight);
+			numLaterNodes += later ? 1 : 0;
+			visited[next] = false;
+
+		}
+
+		private double findTreeWeight(int root) {
+
+			// Prim's algorithm over the last node and all unvisited nodes
+			for (int node = 0; node < numNodes; node++) {
+				inTree[node] = visited[node] && (node != root);
+				treeWeights[node] = distances[root * numNodes + node];
+			}
+			inTree[root] = true;
+
+			double treeWeight = 0;
+			while (true) {
+
+				// Cheapest node to connect to the tree
+				int next = -1;
+				for (int node = 0; node < numNodes; node++) {
+					if (!inTree[node] && ((next == -1) || (treeWeights[node] < treeWeights[next]))) {
+						next = node;
+					}
+				}
+				if (next == -1) {
+					return treeWeight;
+				}
+
+				// Connect it and update the other distances to the tree
+				inTree[next] = true;
+				treeWeight += treeWeights[next];
+				int row = next * numNodes;
+				for (int node = 0; node < numNodes; node++) {
+					if (!inTree[node] && (distances[row + node] < treeWeights[node])) {
+						treeWeights[node] = distances[row + node];
+					}
+				}
+
+			}
+
+		}
+
+	}
+
+}
@@ -0,0 +1,239 @@
+package com.abhijeet.core;
+
+import java.nio.DoubleBuffer;
+
+public class DistanceMatrix {
+
+	// Candidate neighbours per node for heuristic moves
+	public static final int NUM_NEIGHBOURS = 10;
+
+	// SIMD arithmetic when run with "--add-modules jdk.incubator.vector", unless turned off with -Dgraphx.vector=false
+	public static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+			&& Boolean.parseBoolean(System.getProperty("graphx.vector", "true"));
+
+	private final int numNodes;
+	private final double[] x, y;
+	private final DoubleBuffer storedDistances;
+	private volatile double[] distances;
+	private volatile int[][] neighbours;
+
+	public DistanceMatrix(double[] x, double[] y) {
+		// Only the coordinates, weights are computed when asked for
+		this(x, y, null);
+	}
+
+	public DistanceMatrix(double[] x, double[] y, DoubleBuffer storedDistances) {
+		// Weights read from a precomputed row-major matrix, such as one mapped from an instance file, without copying it
+		numNodes = x.length;
+		this.x = x;
+		this.y = y;
+		this.storedDistances = storedDistances;
+	}
+
+	public int getNumNodes() {
+		return numNodes;
+	}
+
+	public double getDistance(int firstNode, int secondNode) {
+		// From the matrix once it exists, otherwise from the coordinates
+		double[] distances = this.distances;
+		if (distances != null) {
+			return distances[firstNode * numNodes + secondNode];
+		}
+		if (storedDistances != null) {
+			return storedDistances.get(firstNode * numNodes + secondNode);
+		}
+		return computeDistance(firstNode, secondNode);
+	}
+
+	private double computeDistance(int firstNode, int secondNode) {
+		double dx = x[secondNode] - x[firstNode];
+		double dy = y[secondNode] - y[firstNode];
+		return Math.sqrt(dx * dx + dy * dy);
+	}
+
+	public double[] getDistances() {
+
+		// Backing array for hot loops, must not be modified
+		double[] distances = this.distances;
+		if (distances != null) {
+			return distances;
+		}
+
+		// Flat row-major matrix, built once on first use since it takes O(n²) time and memory
+		synchronized (this) {
+			if ((this.distances == null) && (storedDistances != null)) {
+				// One bulk copy of the stored matrix
+				double[] matrix = new double[numNodes * numNodes];
+				storedDistances.get(0, matrix);
+				this.distances = matrix;
+			} else if ((this.distances == null) && isVectorized()) {
+				// Whole rows a vector at a time, twice the arithmetic of one half but several lanes per instruction
+				double[] matrix = new double[numNodes * numNodes];
+				for (int i = 0; i < numNodes; i++) {
+					VectorDistances.computeRow(x, y, i, matrix, i * numNodes);
+				}
+				this.distances = matrix;
+			} else if (this.distances == null) {
+				double[] matrix = new double[numNodes * numNodes];
+				for (int i = 0; i < numNodes; i++) {
+					for (int j = i + 1; j < numNodes; j++) {
+						double distance = computeDistance(i, j);
+						matrix[i * numNodes + j] = distance;
+						matrix[j * numNodes + i] = distance;
+					}
+				}
+				this.distances = matrix;
+			}
+			return this.distances;
+		}
+
+	}
+
+	public void getDistances(int node, double[] row) {
+
+		// Distances from one node to every node, without building the whole matrix
+		double[] distances = this.distances;
+		if (distances != null) {
+			System.arraycopy(distances, node * numNodes, row, 0, numNodes);
+		} else if (storedDistances != null) {
+			storedDistances.get(node * numNodes, row, 0, numNodes);
+		} else if (isVectorized()) {
+			VectorDistances.computeRow(x, y, node, row, 0);
+		} else {
+			for (int other = 0; other < numNodes; other++) {
+				row[other] = computeDistance(node, other);
+			}
+		}
+
+	}
+
+	DistanceMatrix withNodeMoved(int node, double[] x, double[] y) {
+
+		// Same nodes with new coordinates, only the row and column of the moved node are recomputed
+		DistanceMatrix matrix = new DistanceMatrix(x, y);
+		double[] distances = this.distances;
+		if (distances != null) {
+			double[] patched = distances.clone();
+			matrix.patch(patched, node);
+			matrix.distances = patched;
+		}
+		return matrix;
+
+	}
+
+	DistanceMatrix withNodeAdded(double[] x, double[] y) {
+
+		// Previous rows copied one by one into the wider matrix, then the new node's row and column
+		DistanceMatrix matrix = new DistanceMatrix(x, y);
+		double[] distances = this.distances;
+		if (distances != null) {
+			int size = numNodes + 1;
+			double[] patched = new double[size * size];
+			for (int i = 0; i < numNodes; i++) {
+				System.arraycopy(distances, i * numNodes, patched, i * size, numNodes);
+			}
+			matrix.patch(patched, numNodes);
+			matrix.distances = patched;
+		}
+		return matrix;
+
+	}
+
+	DistanceMatrix withNodeRemoved(int node, double[] x, double[] y) {
+
+		// Previous rows without the removed node's row and column, nothing is recomputed
+		DistanceMatrix matrix = new DistanceMatrix(x, y);
+		double[] distances = this.distances;
+		if (distances != null) {
+			int size = numNodes - 1;
+			double[] patched = new double[size * size];
+			for (int i = 0, row = 0; i < numNodes; i++) {
+				if (i == node) {
+					continue;
+				}
+				System.arraycopy(distances, i * numNodes, patched, row * size, node);
+				System.arraycopy(distances, i * numNodes + node + 1, patched, row * size + node, numNodes - node - 1);
+				row++;
+			}
+			matrix.distances = patched;
+		}
+		return matrix;
+
+	}
+
+	private void patch(double[] matrix, int node) {
+
+		// Row of the node, then mirrored into its column
+		if (isVectorized()) {
+			VectorDistances.computeRow(x, y, node, matrix, node * numNodes);
+		} else {
+			for (int other = 0; other < numNodes; other++) {
+				matrix[node * numNodes + other] = computeDistance(node, other);
+			}
+		}
+		for (int other = 0; other < numNodes; other++) {
+			matrix[other * numNodes + node] = matrix[node * numNodes + other];
+		}
+
+	}
+
+	public int[][] getNeighbours() {
+
+		// Nearest nodes of each node, nearest first, found on a spatial grid without the matrix
+		int[][] neighbours = this.neighbours;
+		if (neighbours != null) {
+			return neighbours;
+		}
+
+		synchronized (this) {
+			if (this.neighbours == null) {
+				SpatialGrid grid = SpatialGrid.of(x, y);
+				int[][] nearest = new int[numNodes][];
+				for (int node = 0; node < numNodes; node++) {
+					nearest[node] = grid.findNearest(node, NUM_NEIGHBOURS);
+				}
+				this.neighbours = nearest;
+			}
+			return this.neighbours;
+		}
+
+	}
+
+	private boolean isVectorized() {
+		// Small graphs of the exact solvers stay scalar, VectorDistances is not even loaded for them
+		return VECTORIZED && (numNodes >= VectorDistances.MIN_NODES);
+	}
+
+	public double getPathWeight(int[] path) {
+
+		// Long paths of heuristic solvers weighed from the coordinates several edges at a time
+		if (isVectorized() && (distances == null) && (storedDistances == null)) {
+			return VectorDistances.getPathWeight(x, y, path);
+		}
+
+		double pathWeight = 0;
+		for (int i = 0; i < path.length - 1; i++) {
+			pathWeight += getDistance(path[i], path[i + 1]);
+		}
+		return pathWeight;
+
+	}
+
+	public void getTwoOptGains(int node, int[] ends, int[] others, int[] otherEnds, int count, double[] gains) {
+
+		// Gain of replacing the edges from the node to each end and from each other node to its end with the edge between the nodes and between the ends
+		// A node stands in for its own missing end past either end of the path, so every index can be gathered and the missing edges weigh nothing
+		if (isVectorized() && (distances == null) && (storedDistances == null)) {
+			VectorDistances.getTwoOptGains(x, y, node, ends, others, otherEnds, count, gains);
+			return;
+		}
+
+		for (int i = 0; i < count; i++) {
+			double added = ((ends[i] == node) || (otherEnds[i] == others[i])) ? 0 : getDistance(ends[i], otherEnds[i]);
+			gains[i] = getDistance(node, ends[i]) + getDistance(others[i], otherEnds[i]) - getDistance(node, others[i]) - added;
+		}
+
+	}
+
+}
@@ -0,0 +1,5 @@
+package com.abhijeet.core;
+
+// Graph after adding, moving or removing a node, and the node each of its nodes was before the edit, -1 for a new or moved node
+public record GraphEdit(GraphModel model, int[] previousNodes) {
+}
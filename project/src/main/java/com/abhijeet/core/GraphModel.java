@@ -0,0 +1,268 @@
+package com.abhijeet.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.DoubleBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class GraphModel {
+
+	// Node radius in pixels, nodes closer than three radii overlap
+	public static final int NODE_RADIUS = 20;
+
+	// Smallest radius nodes shrink to on large graphs
+	public static final int MIN_NODE_RADIUS = 3;
+
+	// Lower and upper bounds for coordinates
+	public static final int MIN_X = 35;
+	public static final int MIN_Y = 35;
+	public static final int MAX_X = 1250;
+	public static final int MAX_Y = 790;
+
+	// Random positions tried for a node before giving up on fitting it
+	public static final int MAX_ATTEMPTS = 10_000;
+
+	private final int numNodes;
+	private final int nodeRadius;
+	private final double[] x, y;
+	private final DistanceMatrix distanceMatrix;
+
+	public GraphModel(double[] x, double[] y) {
+		this(x, y, null);
+	}
+
+	public GraphModel(double[] x, double[] y, DoubleBuffer distances) {
+		// Edge weights of the complete graph, precomputed or from the coordinates
+		this(new DistanceMatrix(x, y, distances), x, y);
+	}
+
+	private GraphModel(DistanceMatrix distanceMatrix, double[] x, double[] y) {
+		// Node IDs are indices into the coordinate arrays
+		numNodes = x.length;
+		nodeRadius = getNodeRadius(numNodes);
+		this.x = x;
+		this.y = y;
+		this.distanceMatrix = distanceMatrix;
+	}
+
+	public GraphEdit addNode(double nodeX, double nodeY) {
+		// New node gets the next ID, all others keep theirs
+		double[] editedX = Arrays.copyOf(x, numNodes + 1);
+		double[] editedY = Arrays.copyOf(y, numNodes + 1);
+		editedX[numNodes] = nodeX;
+		editedY[numNodes] = nodeY;
+		int[] previousNodes = IntStream.rangeClosed(0, numNodes).map(node -> (node < numNodes) ? node : -1).toArray();
+		return new GraphEdit(new GraphModel(distanceMatrix.withNodeAdded(editedX, editedY), editedX, editedY), previousNodes);
+	}
+
+	public GraphEdit moveNode(int node, double nodeX, double nodeY) {
+		// Moved node keeps its ID, but none of its previous distances
+		double[] editedX = x.clone();
+		double[] editedY = y.clone();
+		editedX[node] = nodeX;
+		editedY[node] = nodeY;
+		int[] previousNodes = IntStream.range(0, numNodes).map(other -> (other != node) ? other : -1).toArray();
+		return new GraphEdit(new GraphModel(distanceMatrix.withNodeMoved(node, editedX, editedY), editedX, editedY), previousNodes);
+	}
+
+	public GraphEdit removeNode(int node) {
+		// Nodes after the removed one move down by one ID
+		double[] editedX = new double[numNodes - 1];
+		double[] editedY = new double[numNodes - 1];
+		System.arraycopy(x, 0, editedX, 0, node);
+		System.arraycopy(x, node + 1, editedX, node, numNodes - node - 1);
+		System.arraycopy(y, 0, editedY, 0, node);
+		System.arraycopy(y, node + 1, editedY, node, numNodes - node - 1);
+		int[] previousNodes = IntStream.range(0, numNodes - 1).map(other -> (other < node) ? other : other + 1).toArray();
+		return new GraphEdit(new GraphModel(distanceMatrix.withNodeRemoved(node, editedX, editedY), editedX, editedY), previousNodes);
+	}
+
+	public static GraphModel random(int minNodes, int maxNodes, Random random) {
+
+		// Random number of nodes
+		final int numNodes = random.nextInt(maxNodes - minNodes + 1) + minNodes;
+
+		// Timed as the placement phase, failed attempts included
+		try (Phase phase = Phase.start("placement").setNumNodes(numNodes)) {
+
+			// Random node coordinates, with placed nodes indexed by grid cell for the overlap check
+			double[] x = new double[numNodes];
+			double[] y = new double[numNodes];
+			int nodeRadius = getNodeRadius(numNodes);
+			SpatialGrid grid = new SpatialGrid(MIN_X, MIN_Y, MAX_X, MAX_Y, nodeRadius * 3, x, y);
+			int index = 0;
+			int attempts = 0;
+
+			while (index < numNodes) {
+
+				// Canvas too full to find a free position
+				if (attempts == MAX_ATTEMPTS) {
+					throw new IllegalStateException("Cannot fit " + numNodes + " nodes of radius " + nodeRadius + " px without overlap, placed " + index);
+				}
+				attempts++;
+
+				x[index] = random.nextInt(MAX_X - MIN_X + 1) + MIN_X;
+				y[index] = random.nextInt(MAX_Y - MIN_Y + 1) + MIN_Y;
+
+				// Increment index if node is not overlapping another node
+				if (!grid.isWithin(x[index], y[index], nodeRadius * 3)) {
+					grid.add(index);
+					index++;
+					attempts = 0;
+				}
+
+			}
+
+			return new GraphModel(x, y);
+
+		}
+
+	}
+
+	public static GraphModel read(BufferedReader reader) throws IOException {
+
+		// One node per line as "x y" or "x,y", blank lines and "#" comments skipped
+		double[] x = new double[16];
+		double[] y = new double[16];
+		int numNodes = 0;
+		int lineNumber = 0;
+		for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+			lineNumber++;
+			line = line.strip();
+			if (line.isEmpty() || line.startsWith("#")) {
+				continue;
+			}
+			String[] fields = line.split("[\\s,]+");
+			if (fields.length != 2) {
+				throw new IOException("Expected x and y on line " + lineNumber + ": " + line);
+			}
+			if (numNodes == x.length) {
+				x = Arrays.copyOf(x, numNodes * 2);
+				y = Arrays.copyOf(y, numNodes * 2);
+			}
+			try {
+				x[numNodes] = Double.parseDouble(fields[0]);
+				y[numNodes] = Double.parseDouble(fields[1]);
+			} catch (NumberFormatException exception) {
+				throw new IOException("Invalid coordinate on line " + lineNumber + ": " + line, exception);
+			}
+
+			// "NaN" and "Infinity" parse, but no distance or path can be computed from them
+			if (!Double.isFinite(x[numNodes]) || !Double.isFinite(y[numNodes])) {
+				throw new IOException("Invalid coordinate on line " + lineNumber + ": " + line);
+			}
+			numNodes++;
+		}
+
+		return new GraphModel(Arrays.copyOf(x, numNodes), Arrays.copyOf(y, numNodes));
+
+	}
+
+	public GraphModel fitToCanvas() {
+
+		// Loaded graphs keep their coordinates unless they fall outside the canvas
+		double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+		for (int node = 0; node < numNodes; node++) {
+			minX = Math.min(minX, x[node]);
+			minY = Math.min(minY, y[node]);
+			maxX = Math.max(maxX, x[node]);
+			maxY = Math.max(maxY, y[node]);
+		}
+		if ((numNodes == 0) || ((minX >= MIN_X) && (minY >= MIN_Y) && (maxX <= MAX_X) && (maxY <= MAX_Y))) {
+			return this;
+		}
+
+		// Same scale on both axes so shapes are kept, weights become pixels
+		double scale = Math.min((MAX_X - MIN_X) / Math.max(maxX - minX, 1e-9), (MAX_Y - MIN_Y) / Math.max(maxY - minY, 1e-9));
+		double[] fittedX = new double[numNodes];
+		double[] fittedY = new double[numNodes];
+		for (int node = 0; node < numNodes; node++) {
+			fittedX[node] = MIN_X + (x[node] - minX) * scale;
+			fittedY[node] = MIN_Y + (y[node] - minY) * scale;
+		}
+		return new GraphModel(fittedX, fittedY);
+
+	}
+
+	public static int getNodeRadius(int numNodes) {
+		// Full size on small graphs, smaller on large ones so that random nodes still fit
+		double spacing = Math.sqrt(0.38 * (MAX_X - MIN_X) * (MAX_Y - MIN_Y) / Math.max(numNodes, 1));
+		return (int) Math.max(MIN_NODE_RADIUS, Math.min(NODE_RADIUS, spacing / 3));
+	}
+
+	public int getNumNodes() {
+		return numNodes;
+	}
+
+	public int getNodeRadius() {
+		return nodeRadius;
+	}
+
+	public long getNumEdges() {
+		return (long) numNodes * (numNodes - 1) / 2;
+	}
+
+	public BigInteger getNumPaths() {
+		// n! / 2, each path counted once rather than again in reverse with the same weight, overflows a long beyond 21 nodes
+		BigInteger numPaths = BigInteger.ONE;
+		for (int num = 3; num <= numNodes; num++) {
+			numPaths = numPaths.multiply(BigInteger.valueOf(num));
+		}
+		return numPaths;
+	}
+
+	public double getX(int node) {
+		return x[node];
+	}
+
+	public double getY(int node) {
+		return y[node];
+	}
+
+	public String getLabel(int node) {
+		// Alphabetic label like spreadsheet columns: "A" to "Z", then "AA", "AB" and so on
+		StringBuilder label = new StringBuilder();
+		for (int num = node + 1; num > 0; num = (num - 1) / 26) {
+			label.append((char) ('A' + (num - 1) % 26));
+		}
+		return label.reverse().toString();
+	}
+
+	public String getPathString(Path path) {
+		return getPathString(path, path.getNumNodes());
+	}
+
+	public String getPathString(Path path, int maxNodes) {
+
+		// Rendered only when a path is displayed
+		StringBuilder pathString = new StringBuilder();
+		int numNodes = Math.min(maxNodes, path.getNumNodes());
+		for (int i = 0; i < numNodes; i++) {
+			if (!pathString.isEmpty()) {
+				pathString.append("-");
+			}
+			pathString.append(getLabel(path.getNode(i)));
+		}
+
+		// Long paths are cut short
+		if (numNodes < path.getNumNodes()) {
+			pathString.append("-…");
+		}
+
+		return pathString.toString();
+
+	}
+
+	public double getDistance(int firstNode, int secondNode) {
+		return distanceMatrix.getDistance(firstNode, secondNode);
+	}
+
+	public DistanceMatrix getDistanceMatrix() {
+		return distanceMatrix;
+	}
+
+}
@@ -0,0 +1,201 @@
+package com.abhijeet.core;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+public class HeldKarp implements Solver {
+
+	// Largest graph whose table fits in memory (2^n * n doubles)
+	public static final int MAX_NODES = 20;
+
+	private final int numNodes;
+	private final double[] distances;
+
+	// Node ID of each bit of a subset, and the number of low bits whose table entries are copied from the previous table
+	private final int[] order;
+	private final int numKeptNodes;
+	private HeldKarp previous;
+	private int[] previousBits;
+
+	private double[] table;
+	private int[] shortestPath;
+	private double shortestPathWeight;
+	private long numEvaluations;
+
+	public HeldKarp(DistanceMatrix distanceMatrix) {
+		numNodes = distanceMatrix.getNumNodes();
+		distances = distanceMatrix.getDistances();
+		order = IntStream.range(0, numNodes).toArray();
+		numKeptNodes = 0;
+	}
+
+	public HeldKarp(DistanceMatrix distanceMatrix, HeldKarp previous, int[] previousNodes) {
+
+		// Table of an edited graph, reusing every entry of the previous table over nodes the edit did not touch
+		numNodes = distanceMatrix.getNumNodes();
+		int[] bits = (previous.table != null) ? previous.getBits() : new int[0];
+		int[] keptBits = new int[numNodes];
+		for (int node = 0; node < numNodes; node++) {
+			int previousNode = previousNodes[node];
+			keptBits[node] = ((previousNode != -1) && (previousNode < bits.length)) ? bits[previousNode] : -1;
+		}
+
+		// Kept nodes first, in their previous bit order, so each kept subset is a subset of the same nodes in the previous table, -1 sorts last unsigned
+		order = IntStream.range(0, numNodes).boxed()
+				.sorted((first, second) -> Integer.compareUnsigned(keptBits[first], keptBits[second]))
+				.mapToInt(Integer::intValue).toArray();
+		numKeptNodes = (int) Arrays.stream(keptBits).filter(bit -> bit != -1).count();
+		this.previous = (numKeptNodes > 0) ? previous : null;
+		previousBits = new int[numKeptNodes];
+		for (int bit = 0; bit < numKeptNodes; bit++) {
+			previousBits[bit] = keptBits[order[bit]];
+		}
+
+		// Distances between bits rather than node IDs
+		distances = new double[numNodes * numNodes];
+		for (int i = 0; i < numNodes; i++) {
+			for (int j = 0; j < numNodes; j++) {
+				distances[i * numNodes + j] = distanceMatrix.getDistance(order[i], order[j]);
+			}
+		}
+
+	}
+
+	@Override
+	public void solve() {
+
+		numEvaluations = 0;
+		if (numNodes == 0) {
+			shortestPath = new int[0];
+			shortestPathWeight = 0;
+			return;
+		}
+
+		int numSubsets = 1 << numNodes;
+		int fullSubset = numSubsets - 1;
+
+		// Weight of the shortest path visiting every node of a subset and ending at a given node
+		table = new double[numSubsets * numNodes];
+		Arrays.fill(table, Double.POSITIVE_INFINITY);
+
+		// Subsets of kept nodes are final already
+		int firstSubset = copyKeptSubsets();
+
+		// Subsets are visited in increasing order, so every smaller subset a path extends is final
+		for (int subset = firstSubset; subset < numSubsets; subset++) {
+			int row = subset * numNodes;
+
+			// A path may start at any node
+			int size = Integer.bitCount(subset);
+			if (size == 1) {
+				table[row + Integer.numberOfTrailingZeros(subset)] = 0;
+				continue;
+			}
+			numEvaluations += (long) size * (size - 1);
+
+			// Shortest path ending at each node of the subset, extending a path over the other nodes
+			for (int nodes = subset; nodes != 0; nodes &= nodes - 1) {
+				int last = Integer.numberOfTrailingZeros(nodes);
+				int rest = subset & ~(1 << last);
+				int restRow = rest * numNodes;
+				int distanceRow = last * numNodes;
+				double weight = Double.POSITIVE_INFINITY;
+				for (int others = rest; others != 0; others &= others - 1) {
+					int previousNode = Integer.numberOfTrailingZeros(others);
+					double pathWeight = table[restRow + previousNode] + distances[distanceRow + previousNode];
+					if (pathWeight < weight) {
+						weight = pathWeight;
+					}
+				}
+				table[row + last] = weight;
+			}
+		}
+
+		// Previous table is not needed any more
+		previous = null;
+		previousBits = null;
+
+		// Shortest path over all nodes may end at any node
+		int fullRow = fullSubset * numNodes;
+		int last = 0;
+		for (int node = 1; node < numNodes; node++) {
+			if (table[fullRow + node] < table[fullRow + last]) {
+				last = node;
+			}
+		}
+		shortestPathWeight = table[fullRow + last];
+
+		// Walk back through the table to rebuild the path
+		shortestPath = new int[numNodes];
+		int subset = fullSubset;
+		for (int position = numNodes - 1; position > 0; position--) {
+			shortestPath[position] = order[last];
+			subset &= ~(1 << last);
+			int row = subset * numNodes;
+			int previousNode = -1;
+			double previousWeight = Double.POSITIVE_INFINITY;
+			for (int node = 0; node < numNodes; node++) {
+				if ((subset & (1 << node)) != 0) {
+					double pathWeight = table[row + node] + distances[node * numNodes + last];
+					if (pathWeight < previousWeight) {
+						previousNode = node;
+						previousWeight = pathWeight;
+					}
+				}
+			}
+			last = previousNode;
+		}
+		shortestPath[0] = order[last];
+
+	}
+
+	private int copyKeptSubsets() {
+
+		if (previous == null) {
+			return 1;
+		}
+
+		// Each kept subset maps bit by bit to the previous subset of the same nodes
+		int numKeptSubsets = 1 << numKeptNodes;
+		int[] previousSubsets = new int[numKeptSubsets];
+		int previousNumNodes = previous.numNodes;
+		double[] previousTable = previous.table;
+		for (int subset = 1; subset < numKeptSubsets; subset++) {
+			previousSubsets[subset] = previousSubsets[subset & (subset - 1)] | (1 << previousBits[Integer.numberOfTrailingZeros(subset)]);
+			int row = subset * numNodes;
+			int previousRow = previousSubsets[subset] * previousNumNodes;
+			for (int nodes = subset; nodes != 0; nodes &= nodes - 1) {
+				int last = Integer.numberOfTrailingZeros(nodes);
+				table[row + last] = previousTable[previousRow + previousBits[last]];
+			}
+		}
+		return numKeptSubsets;
+
+	}
+
+	private int[] getBits() {
+		// Bit of each node ID in this table
+		int[] bits = new int[numNodes];
+		for (int bit = 0; bit < numNodes; bit++) {
+			bits[order[bit]] = bit;
+		}
+		return bits;
+	}
+
+	@Override
+	public int[] getShortestPath() {
+		return shortestPath;
+	}
+
+	@Override
+	public double getShortestPathWeight() {
+		return shortestPathWeight;
+	}
+
+	@Override
+	public long getNumEvaluations() {
+		// Partial paths extended by one node, fewer when entries are reused from the previous table
+		return numEvaluations;
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.abhijeet.core;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+public class IncrementalSolver implements Solver {
+
+	private final DistanceMatrix distanceMatrix;
+	private final long timeLimit;
+	private int parallelism = 1;
+	private IncrementalSolver previous;
+	private int[] previousNodes;
+	private Consumer<Path> listener = path -> {
+	};
+	private Solver solver;
+	private boolean started;
+	private boolean solved;
+
+	public IncrementalSolver(DistanceMatrix distanceMatrix, long timeLimit) {
+		this.distanceMatrix = distanceMatrix;
+		this.timeLimit = timeLimit;
+	}
+
+	public synchronized IncrementalSolver next(GraphEdit edit) {
+
+		// Solver of the edited graph, starting from what this one finds
+		IncrementalSolver next = new IncrementalSolver(edit.model().getDistanceMatrix(), timeLimit);
+		next.parallelism = parallelism;
+		next.previous = this;
+		next.previousNodes = edit.previousNodes();
+
+		// Edited again before this one started, as when dragging, so start from the last solver that did
+		if (!started && (previous != null)) {
+			next.previous = previous;
+			next.previousNodes = new int[next.previousNodes.length];
+			for (int node = 0; node < next.previousNodes.length; node++) {
+				int previousNode = edit.previousNodes()[node];
+				next.previousNodes[node] = (previousNode == -1) ? -1 : previousNodes[previousNode];
+			}
+		}
+		return next;
+
+	}
+
+	public void setParallelism(int parallelism) {
+		// Passed on to branch and bound, the only solver here splitting its search over threads
+		this.parallelism = parallelism;
+	}
+
+	public void setListener(Consumer<Path> listener) {
+		// Passed on to the heuristic, called with each new shortest path
+		this.listener = listener;
+	}
+
+	@Override
+	public void solve() {
+
+		int numNodes = distanceMatrix.getNumNodes();
+		IncrementalSolver previous;
+		int[] previousNodes;
+		synchronized (this) {
+			started = true;
+			previous = this.previous;
+			previousNodes = this.previousNodes;
+			this.previous = null;
+			this.previousNodes = null;
+		}
+
+		// Path before the edit with the new nodes inserted, unless the previous graph was never solved
+		boolean warm = (previous != null) && previous.solved;
+		int[] initialPath = warm ? repairPath(previous.getShortestPath(), previousNodes) : null;
+
+		// Same solvers as a fresh graph, dynamic programming reusing the previous table, branch and bound or the heuristic from the previous path
+		if (numNodes <= Solvers.HELD_KARP_LIMIT) {
+			solver = (warm && (previous.solver instanceof HeldKarp heldKarp)) ? new HeldKarp(distanceMatrix, heldKarp, previousNodes) : new HeldKarp(distanceMatrix);
+		} else if (Solvers.isExact(numNodes)) {
+			BranchAndBound branchAndBound = new BranchAndBound(distanceMatrix);
+			branchAndBound.setInitialPath(initialPath);
+			branchAndBound.setParallelism(parallelism);
+			solver = branchAndBound;
+		} else {
+			IteratedLocalSearch search = new IteratedLocalSearch(distanceMatrix, timeLimit);
+			search.setInitialPath(initialPath);
+			search.setListener(listener);
+			solver = search;
+		}
+
+		solver.solve();
+		solved = true;
+
+	}
+
+	private int[] repairPath(int[] previousPath, int[] previousNodes) {
+
+		// Nodes kept by the edit, in their previous order
+		int numNodes = previousNodes.length;
+		int[] nodes = new int[previousPath.length];
+		Arrays.fill(nodes, -1);
+		for (int node = 0; node < numNodes; node++) {
+			if (previousNodes[node] != -1) {
+				nodes[previousNodes[node]] = node;
+			}
+		}
+		int[] path = new int[numNodes];
+		int length = 0;
+		for (int previousNode : previousPath) {
+			if (nodes[previousNode] != -1) {
+				path[length++] = nodes[previousNode];
+			}
+		}
+
+		// Added and moved nodes inserted where they lengthen the path least
+		for (int node = 0; node < numNodes; node++) {
+			if (previousNodes[node] != -1) {
+				continue;
+			}
+			int bestPosition = 0;
+			double bestIncrease = (length == 0) ? 0 : distanceMatrix.getDistance(node, path[0]);
+			for (int position = 1; position <= length; position++) {
+				double increase = distanceMatrix.getDistance(path[position - 1], node);
+				if (position < length) {
+					increase += distanceMatrix.getDistance(node, path[position]) - distanceMatrix.getDistance(path[position - 1], path[position]);
+				}
+				if (increase < bestIncrease) {
+					bestPosition = position;
+					bestIncrease = increase;
+				}
+			}
+			System.arraycopy(path, bestPosition, path, bestPosition + 1, length - bestPosition);
+			path[bestPosition] = node;
+			length++;
+		}
+
+		return path;
+
+	}
+
+	@Override
+	public int[] getShortestPath() {
+		return solver.getShortestPath();
+	}
+
+	@Override
+	public double getShortestPathWeight() {
+		return solver.getShortestPathWeight();
+	}
+
+	@Override
+	public long getNumEvaluations() {
+		return solver.getNumEvaluations();
+	}
+
+}
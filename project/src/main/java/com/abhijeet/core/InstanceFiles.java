@@ -0,0 +1,225 @@
+package com.abhijeet.core;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+public class InstanceFiles {
+
+	// "GXB1" at the start of every binary instance file
+	public static final int MAGIC = 0x47584231;
+
+	// Magic, node count and flags, padded so the coordinates are aligned
+	private static final int HEADER_SIZE = 16;
+
+	// Flag set when a distance matrix follows the coordinates
+	private static final int DISTANCES_FLAG = 1;
+
+	// Largest graph whose distance matrix fits in one mapped region
+	public static final int MAX_STORED_DISTANCES_NODES = 16_383;
+
+	private InstanceFiles() {
+	}
+
+	public static GraphModel read(java.nio.file.Path file) throws IOException {
+		// Format from the file name: binary, TSPLIB, or one "x y" node per line
+		String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+		if (name.endsWith(".gxb")) {
+			return readBinary(file);
+		}
+		try (BufferedReader reader = Files.newBufferedReader(file)) {
+			return name.endsWith(".tsp") ? readTsplib(reader) : GraphModel.read(reader);
+		}
+	}
+
+	public static GraphModel readTsplib(BufferedReader reader) throws IOException {
+
+		// Specification part, "KEY : VALUE" lines up to the coordinate section
+		int numNodes = -1;
+		int lineNumber = 0;
+		String line;
+		while (true) {
+			line = reader.readLine();
+			lineNumber++;
+			if (line == null) {
+				throw new IOException("No NODE_COORD_SECTION");
+			}
+			int colon = line.indexOf(':');
+			String key = ((colon == -1) ? line : line.substring(0, colon)).strip();
+			String value = (colon == -1) ? "" : line.substring(colon + 1).strip();
+			if (key.equals("NODE_COORD_SECTION")) {
+				break;
+			}
+			switch (key) {
+				case "TYPE" -> {
+					if (!value.equals("TSP")) {
+						throw new IOException("Unsupported TYPE " + value + ", only TSP is read");
+					}
+				}
+				case "EDGE_WEIGHT_TYPE" -> {
+					// Weights are the exact Euclidean distances, not rounded as in TSPLIB
+					if (!value.equals("EUC_2D") && !value.equals("CEIL_2D")) {
+						throw new IOException("Unsupported EDGE_WEIGHT_TYPE " + value + ", only EUC_2D and CEIL_2D are read");
+					}
+				}
+				case "DIMENSION" -> {
+					try {
+						numNodes = Integer.parseInt(value);
+					} catch (NumberFormatException exception) {
+						throw new IOException("Invalid DIMENSION on line " + lineNumber + ": " + value, exception);
+					}
+				}
+				case "EDGE_WEIGHT_SECTION", "EOF" -> throw new IOException("No NODE_COORD_SECTION");
+				default -> {
+					// NAME, COMMENT and other keys do not change the graph
+				}
+			}
+		}
+		if (numNodes < 0) {
+			throw new IOException("No DIMENSION before NODE_COORD_SECTION");
+		}
+
+		// "id x y" lines with IDs from 1, in any order
+		double[] x = new double[numNodes];
+		double[] y = new double[numNodes];
+		boolean[] read = new boolean[numNodes];
+		for (int count = 0; count < numNodes; count++) {
+			line = reader.readLine();
+			lineNumber++;
+			if ((line == null) || line.strip().equals("EOF")) {
+				throw new IOException("Expected " + numNodes + " nodes, found " + count);
+			}
+			String[] fields = line.strip().split("\\s+");
+			try {
+				int id = Integer.parseInt(fields[0]) - 1;
+				if ((fields.length != 3) || (id < 0) || (id >= numNodes) || read[id]) {
+					throw new IOException("Invalid node on line " + lineNumber + ": " + line);
+				}
+				x[id] = Double.parseDouble(fields[1]);
+				y[id] = Double.parseDouble(fields[2]);
+				if (!Double.isFinite(x[id]) || !Double.isFinite(y[id])) {
+					throw new IOException("Invalid coordinate on line " + lineNumber + ": " + line);
+				}
+				read[id] = true;
+			} catch (NumberFormatException exception) {
+				throw new IOException("Invalid node on line " + lineNumber + ": " + line, exception);
+			}
+		}
+
+		return new GraphModel(x, y);
+
+	}
+
+	public static GraphModel readBinary(java.nio.file.Path file) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+			long size = channel.size();
+			if (size < HEADER_SIZE) {
+				throw new IOException("Not a binary instance file: " + file);
+			}
+			ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			int numNodes = header.getInt(4);
+			int flags = header.getInt(8);
+			if ((header.getInt(0) != MAGIC) || (numNodes < 0)) {
+				throw new IOException("Not a binary instance file: " + file);
+			}
+			boolean storedDistances = (flags & DISTANCES_FLAG) != 0;
+			if (storedDistances && (numNodes > MAX_STORED_DISTANCES_NODES)) {
+				throw new IOException("Too many nodes for stored distances: " + numNodes);
+			}
+			long coordinatesSize = 16L * numNodes;
+			long distancesSize = storedDistances ? 8L * numNodes * numNodes : 0;
+			if (size != HEADER_SIZE + coordinatesSize + distancesSize) {
+				throw new IOException("Truncated binary instance file: " + file);
+			}
+
+			// Coordinates are copied, O(n) and needed as arrays by the grid and the pane
+			DoubleBuffer coordinates = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE, coordinatesSize).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+			double[] x = new double[numNodes];
+			double[] y = new double[numNodes];
+			coordinates.get(0, x);
+			coordinates.get(numNodes, y);
+			for (int node = 0; node < numNodes; node++) {
+				if (!Double.isFinite(x[node]) || !Double.isFinite(y[node])) {
+					throw new IOException("Invalid coordinate of node " + (node + 1) + " in " + file);
+				}
+			}
+
+			// The O(n²) matrix stays in the page cache and is read in place, the mapping outlives the channel
+			DoubleBuffer distances = null;
+			if (storedDistances) {
+				distances = channel.map(FileChannel.MapMode.READ_ONLY, HEADER_SIZE + coordinatesSize, distancesSize).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+			}
+
+			return new GraphModel(x, y, distances);
+
+		}
+
+	}
+
+	public static void writeBinary(GraphModel model, java.nio.file.Path file, boolean storeDistances) throws IOException {
+
+		int numNodes = model.getNumNodes();
+		if (storeDistances && (numNodes > MAX_STORED_DISTANCES_NODES)) {
+			throw new IllegalArgumentException("Too many nodes to store distances: " + numNodes);
+		}
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			header.putInt(MAGIC).putInt(numNodes).putInt(storeDistances ? DISTANCES_FLAG : 0).putInt(0).flip();
+			writeFully(channel, header);
+
+			// All x, then all y
+			ByteBuffer row = ByteBuffer.allocate(8 * Math.max(numNodes, 1)).order(ByteOrder.LITTLE_ENDIAN);
+			for (int node = 0; node < numNodes; node++) {
+				row.putDouble(model.getX(node));
+			}
+			writeFully(channel, row.flip());
+			row.clear();
+			for (int node = 0; node < numNodes; node++) {
+				row.putDouble(model.getY(node));
+			}
+			writeFully(channel, row.flip());
+
+			// Row-major matrix, one row at a time
+			if (storeDistances) {
+				DistanceMatrix distanceMatrix = model.getDistanceMatrix();
+				double[] distances = new double[numNodes];
+				for (int i = 0; i < numNodes; i++) {
+					distanceMatrix.getDistances(i, distances);
+					row.clear();
+					row.asDoubleBuffer().put(distances);
+					writeFully(channel, row);
+				}
+			}
+
+		}
+
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+	}
+
+	// Convert an instance file to the binary format: <input> <output.gxb> [--distances]
+	public static void main(String[] args) throws IOException {
+		if ((args.length < 2) || (args.length > 3) || ((args.length == 3) && !args[2].equals("--distances"))) {
+			System.err.println("Usage: java -cp <classes> com.abhijeet.core.InstanceFiles <input> <output.gxb> [--distances]");
+			System.exit(2);
+		}
+		GraphModel model = read(java.nio.file.Path.of(args[0]));
+		writeBinary(model, java.nio.file.Path.of(args[1]), args.length == 3);
+		System.out.println(args[1] + ": " + model.getNumNodes() + " nodes");
+	}
+
+}
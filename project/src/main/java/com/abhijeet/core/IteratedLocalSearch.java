@@ -0,0 +1,124 @@
+package com.abhijeet.core;
+
+import java.util.Random;
+import java.util.function.Consumer;
+
+public class IteratedLocalSearch implements Solver {
+
+	// Milliseconds spent improving the path unless configured otherwise
+	public static final long DEFAULT_TIME_LIMIT = 2000;
+
+	// Longest segment moved by a kick
+	private static final int MAX_KICK_LENGTH = 30;
+
+	// Smallest gain counted as an improvement
+	private static final double MIN_GAIN = 1e-9;
+
+	private final DistanceMatrix distanceMatrix;
+	private final int numNodes;
+	private final long timeLimit;
+	private final Random random;
+	private final LocalSearch localSearch;
+	private Consumer<Path> listener = path -> {
+	};
+	private int[] shortestPath;
+	private double shortestPathWeight;
+	private long numKicks;
+
+	public IteratedLocalSearch(DistanceMatrix distanceMatrix, long timeLimit) {
+		this(distanceMatrix, timeLimit, new Random());
+	}
+
+	public IteratedLocalSearch(DistanceMatrix distanceMatrix, long timeLimit, Random random) {
+		this.distanceMatrix = distanceMatrix;
+		numNodes = distanceMatrix.getNumNodes();
+		this.timeLimit = timeLimit;
+		this.random = random;
+		localSearch = new LocalSearch(distanceMatrix);
+	}
+
+	public void setInitialPath(int[] initialPath) {
+		// Start from a given path instead of a nearest neighbour path
+		localSearch.setInitialPath(initialPath);
+	}
+
+	public void setListener(Consumer<Path> listener) {
+		// Called from the solving thread with each new shortest path
+		this.listener = listener;
+	}
+
+	@Override
+	public void solve() {
+
+		long deadline = System.nanoTime() + timeLimit * 1_000_000;
+
+		// Local optimum from the nearest neighbour path
+		localSearch.solve();
+		shortestPath = localSearch.getShortestPath().clone();
+		shortestPathWeight = localSearch.getShortestPathWeight();
+		listener.accept(new Path(shortestPath, shortestPathWeight));
+
+		// Kick the path out of its local optimum and improve it again until the time is up, or the solving thread is interrupted
+		int[] path = shortestPath.clone();
+		int[] touched = new int[6];
+		while ((numNodes > 3) && (System.nanoTime() < deadline) && !Thread.currentThread().isInterrupted()) {
+
+			kick(path, touched);
+			localSearch.improve(path, touched);
+			double pathWeight = distanceMatrix.getPathWeight(path);
+			numKicks++;
+
+			if (pathWeight < shortestPathWeight - MIN_GAIN) {
+				// Published paths are never changed afterwards
+				shortestPath = path.clone();
+				shortestPathWeight = pathWeight;
+				listener.accept(new Path(shortestPath, shortestPathWeight));
+			} else if (pathWeight > shortestPathWeight + MIN_GAIN) {
+				// Worse paths are dropped, paths of equal weight are kept to drift further
+				System.arraycopy(shortestPath, 0, path, 0, numNodes);
+			}
+
+		}
+
+	}
+
+	private void kick(int[] path, int[] touched) {
+
+		// Swap two random adjacent segments, which 2-opt and Or-opt cannot undo in one move
+		int start = random.nextInt(numNodes - 1);
+		int firstLength = 1 + random.nextInt(Math.min(MAX_KICK_LENGTH, numNodes - start - 1));
+		int secondLength = 1 + random.nextInt(Math.min(MAX_KICK_LENGTH, numNodes - start - firstLength));
+		int end = start + firstLength + secondLength;
+
+		int[] segment = new int[firstLength];
+		System.arraycopy(path, start, segment, 0, firstLength);
+		System.arraycopy(path, start + firstLength, path, start, secondLength);
+		System.arraycopy(segment, 0, path, start + secondLength, firstLength);
+
+		// Ends of both segments and the nodes around them
+		touched[0] = (start > 0) ? path[start - 1] : -1;
+		touched[1] = path[start];
+		touched[2] = path[start + secondLength - 1];
+		touched[3] = path[start + secondLength];
+		touched[4] = path[end - 1];
+		touched[5] = (end < numNodes) ? path[end] : -1;
+
+	}
+
+	@Override
+	public int[] getShortestPath() {
+		return shortestPath;
+	}
+
+	@Override
+	public double getShortestPathWeight() {
+		return shortestPathWeight;
+	}
+
+	@Override
+	public long getNumEvaluations() {
+		// Kicks tried before the time limit
+		return numKicks;
+	}
+
+}
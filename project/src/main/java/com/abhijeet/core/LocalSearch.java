@@ -0,0 +1,298 @@
+package com.abhijeet.core;
+
+import java.util.ArrayDeque;
+
+public class LocalSearch implements Solver {
+
+	// Longest segment moved by Or-opt
+	private static final int MAX_SEGMENT_LENGTH = 3;
+
+	// Smallest gain worth applying, avoids cycling on rounding errors
+	private static final double MIN_GAIN = 1e-9;
+
+	private final DistanceMatrix distanceMatrix;
+	private final int numNodes;
+	private final int[][] neighbours;
+
+	// 2-opt moves around one node, scored together
+	private final int[] moveEnds, moveOthers, moveOtherEnds;
+	private final double[] moveGains;
+	private int[] path;
+	private int[] positions;
+	private int[] initialPath;
+	private int[] shortestPath;
+	private double shortestPathWeight;
+	private long numMoves;
+
+	public LocalSearch(DistanceMatrix distanceMatrix) {
+		this(distanceMatrix, distanceMatrix.getNeighbours());
+	}
+
+	public LocalSearch(DistanceMatrix distanceMatrix, int[][] neighbours) {
+		this.distanceMatrix = distanceMatrix;
+		numNodes = distanceMatrix.getNumNodes();
+		this.neighbours = neighbours;
+
+		// Two moves per neighbour
+		int maxMoves = 0;
+		for (int[] nodeNeighbours : neighbours) {
+			maxMoves = Math.max(maxMoves, 2 * nodeNeighbours.length);
+		}
+		moveEnds = new int[maxMoves];
+		moveOthers = new int[maxMoves];
+		moveOtherEnds = new int[maxMoves];
+		moveGains = new double[maxMoves];
+	}
+
+	public void setInitialPath(int[] initialPath) {
+		// Start from a given path instead of a nearest neighbour path
+		this.initialPath = initialPath;
+	}
+
+	@Override
+	public void solve() {
+
+		// Initial path
+		if (initialPath != null) {
+			path = initialPath.clone();
+		} else {
+			NearestNeighbour nearestNeighbour = new NearestNeighbour(distanceMatrix);
+			nearestNeighbour.solve();
+			path = nearestNeighbour.getShortestPath().clone();
+		}
+
+		improve(path);
+
+		shortestPath = path;
+		shortestPathWeight = distanceMatrix.getPathWeight(path);
+
+	}
+
+	public void improve(int[] path) {
+		improve(path, path);
+	}
+
+	public void improve(int[] path, int[] nodes) {
+
+		this.path = path;
+		if (positions == null) {
+			positions = new int[numNodes];
+		}
+		updatePositions(0, numNodes - 1);
+
+		// Nodes whose surroundings changed, starting with the given ones, the others have their don't-look bit set
+		ArrayDeque<Integer> queue = new ArrayDeque<>(nodes.length);
+		boolean[] queued = new boolean[numNodes];
+		for (int node : nodes) {
+			if ((node != -1) && !queued[node]) {
+				queue.add(node);
+				queued[node] = true;
+			}
+		}
+
+		while (!queue.isEmpty()) {
+
+			int node = queue.poll();
+			queued[node] = false;
+
+			// Apply the first improving move around the node, then look at it again
+			int[] touched = (numNodes > 2) ? findTwoOptMove(node) : null;
+			if (touched == null && numNodes > 2) {
+				touched = findOrOptMove(node);
+			}
+			if (touched == null) {
+				continue;
+			}
+			numMoves++;
+
+			for (int touchedNode : touched) {
+				if ((touchedNode != -1) && !queued[touchedNode]) {
+					queue.add(touchedNode);
+					queued[touchedNode] = true;
+				}
+			}
+
+		}
+
+	}
+
+	private int[] findTwoOptMove(int node) {
+
+		// Each node stands in for its own missing successor or predecessor past either end of the path
+		int position = positions[node];
+		int next = getEnd(position + 1, node);
+		int previous = getEnd(position - 1, node);
+
+		// Replace the edges after both nodes with the edge between them and the edge between their successors, then the same before both nodes
+		int numMoves = 0;
+		for (int other : neighbours[node]) {
+			int otherPosition = positions[other];
+			moveEnds[numMoves] = next;
+			moveOthers[numMoves] = other;
+			moveOtherEnds[numMoves++] = getEnd(otherPosition + 1, other);
+			moveEnds[numMoves] = previous;
+			moveOthers[numMoves] = other;
+			moveOtherEnds[numMoves++] = getEnd(otherPosition - 1, other);
+		}
+		distanceMatrix.getTwoOptGains(node, moveEnds, moveOthers, moveOtherEnds, numMoves, moveGains);
+
+		// First improving move in neighbour order
+		for (int move = 0; move < numMoves; move++) {
+			int end = moveEnds[move];
+			int other = moveOthers[move];
+			int otherEnd = moveOtherEnds[move];
+			if ((end != other) && (otherEnd != node) && (moveGains[move] > MIN_GAIN)) {
+				int otherPosition = positions[other];
+				if (move % 2 == 0) {
+					reverse(Math.min(position, otherPosition) + 1, Math.max(position, otherPosition));
+				} else {
+					reverse(Math.min(position, otherPosition), Math.max(position, otherPosition) - 1);
+				}
+				return new int[]{node, end, other, otherEnd};
+			}
+		}
+
+		return null;
+
+	}
+
+	private int[] findOrOptMove(int node) {
+
+		int position = positions[node];
+
+		for (int length = 1; length <= MAX_SEGMENT_LENGTH; length++) {
+
+			// Segments starting or ending at the node, a single node is both
+			for (int side = 0; side < ((length == 1) ? 1 : 2); side++) {
+
+				int start = (side == 0) ? position : position - length + 1;
+				int end = start + length - 1;
+				if ((start < 0) || (end >= numNodes)) {
+					continue;
+				}
+
+				int first = path[start];
+				int last = path[end];
+				int previous = getNode(start - 1);
+				int next = getNode(end + 1);
+				double removeGain = getDistance(previous, first) + getDistance(last, next) - getDistance(previous, next);
+				if (removeGain <= MIN_GAIN) {
+					continue;
+				}
+
+				// Insert next to a neighbour of either end of the segment
+				for (int end1 : new int[]{first, last}) {
+					int end2 = (end1 == first) ? last : first;
+					for (int other : neighbours[end1]) {
+
+						int otherPosition = positions[other];
+						if ((otherPosition >= start) && (otherPosition <= end)) {
+							continue;
+						}
+
+						// Between the neighbour and its successor, or its predecessor and it
+						for (int spot = 0; spot < 2; spot++) {
+							int before = (spot == 0) ? other : getNode(otherPosition - 1);
+							int after = (spot == 0) ? getNode(otherPosition + 1) : other;
+							if (((before == previous) && (after == first)) || ((before == last) && (after == next)) || ((before == previous) && (after == next))) {
+								continue;
+							}
+							if (isInSegment(before, start, end) || isInSegment(after, start, end)) {
+								continue;
+							}
+							int head = (spot == 0) ? end1 : end2;
+							int tail = (spot == 0) ? end2 : end1;
+							double insertCost = getDistance(before, head) + getDistance(tail, after) - getDistance(before, after);
+							if (removeGain - insertCost > MIN_GAIN) {
+								move(start, end, (spot == 0) ? otherPosition : otherPosition - 1, head != first);
+								return new int[]{first, last, previous, next, before, after};
+							}
+						}
+
+					}
+				}
+
+			}
+
+		}
+
+		return null;
+
+	}
+
+	private void move(int start, int end, int afterPosition, boolean reversed) {
+
+		// Take the segment out
+		int length = end - start + 1;
+		int[] segment = new int[length];
+		for (int i = 0; i < length; i++) {
+			segment[i] = reversed ? path[end - i] : path[start + i];
+		}
+
+		// Shift the nodes in between and put the segment back after the given position
+		if (afterPosition < start) {
+			System.arraycopy(path, afterPosition + 1, path, afterPosition + 1 + length, start - afterPosition - 1);
+			System.arraycopy(segment, 0, path, afterPosition + 1, length);
+			updatePositions(afterPosition + 1, end);
+		} else {
+			System.arraycopy(path, end + 1, path, start, afterPosition - end);
+			System.arraycopy(segment, 0, path, afterPosition - length + 1, length);
+			updatePositions(start, afterPosition);
+		}
+
+	}
+
+	private void reverse(int start, int end) {
+		for (int i = start, j = end; i < j; i++, j--) {
+			int swap = path[i];
+			path[i] = path[j];
+			path[j] = swap;
+		}
+		updatePositions(start, end);
+	}
+
+	private void updatePositions(int start, int end) {
+		for (int position = start; position <= end; position++) {
+			positions[path[position]] = position;
+		}
+	}
+
+	private boolean isInSegment(int node, int start, int end) {
+		return (node != -1) && (positions[node] >= start) && (positions[node] <= end);
+	}
+
+	private int getNode(int position) {
+		// Beyond either end of the path there is no node
+		return ((position < 0) || (position >= numNodes)) ? -1 : path[position];
+	}
+
+	private int getEnd(int position, int node) {
+		// Node next to the given one on the path, or the node itself beyond either end
+		return ((position < 0) || (position >= numNodes)) ? node : path[position];
+	}
+
+	private double getDistance(int firstNode, int secondNode) {
+		// A missing node at either end of the path costs nothing
+		if ((firstNode == -1) || (secondNode == -1)) {
+			return 0;
+		}
+		return distanceMatrix.getDistance(firstNode, secondNode);
+	}
+
+	@Override
+	public int[] getShortestPath() {
+		return shortestPath;
+	}
+
+	@Override
+	public double getShortestPathWeight() {
+		return shortestPathWeight;
+	}
+
+	@Override
+	public long getNumEvaluations() {
+		// Improving moves applied, over all calls
+		return numMoves;
+	}
+
+}
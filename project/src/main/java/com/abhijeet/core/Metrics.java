@@ -0,0 +1,85 @@
+package com.abhijeet.core;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class Metrics implements MetricsMXBean {
+
+	// Name the MBean is registered under
+	public static final String OBJECT_NAME = "com.abhijeet:type=Metrics";
+
+	// Upper bounds in milliseconds of the latency buckets, one more bucket for anything slower
+	private static final long[] HISTOGRAM_BOUNDS = {1, 10, 100, 1000, 10000};
+
+	private static final Metrics INSTANCE = new Metrics();
+
+	// Totals per phase in the order phases first ran, guarded by this
+	private final Map<String, long[]> totals = new LinkedHashMap<>();
+	private final Map<String, long[]> histograms = new LinkedHashMap<>();
+
+	private Metrics() {
+	}
+
+	public static Metrics getInstance() {
+		return INSTANCE;
+	}
+
+	public static void register() {
+		// Visible to JConsole, VisualVM and other JMX clients, once per JVM
+		try {
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+				ManagementFactory.getPlatformMBeanServer().registerMBean(INSTANCE, name);
+			}
+		} catch (JMException exception) {
+			throw new IllegalStateException("Cannot register " + OBJECT_NAME, exception);
+		}
+	}
+
+	synchronized void record(String phase, long duration, long allocatedBytes, long numPathsEvaluated) {
+
+		// Count, total and maximum nanoseconds, allocated bytes and paths evaluated
+		long[] total = totals.computeIfAbsent(phase, key -> new long[5]);
+		total[0]++;
+		total[1] += duration;
+		total[2] = Math.max(total[2], duration);
+		total[3] += allocatedBytes;
+		total[4] += numPathsEvaluated;
+
+		// First bucket whose bound is above the duration
+		long[] histogram = histograms.computeIfAbsent(phase, key -> new long[HISTOGRAM_BOUNDS.length + 1]);
+		int bucket = 0;
+		while ((bucket < HISTOGRAM_BOUNDS.length) && (duration >= HISTOGRAM_BOUNDS[bucket] * 1_000_000)) {
+			bucket++;
+		}
+		histogram[bucket]++;
+
+	}
+
+	@Override
+	public synchronized List<PhaseStatistics> getPhases() {
+		List<PhaseStatistics> phases = new ArrayList<>(totals.size());
+		for (Map.Entry<String, long[]> entry : totals.entrySet()) {
+			long[] total = entry.getValue();
+			phases.add(new PhaseStatistics(entry.getKey(), total[0], total[1] / 1e6, total[2] / 1e6, total[3], total[4], histograms.get(entry.getKey()).clone()));
+		}
+		return phases;
+	}
+
+	@Override
+	public long[] getHistogramBounds() {
+		return HISTOGRAM_BOUNDS.clone();
+	}
+
+	@Override
+	public synchronized void reset() {
+		totals.clear();
+		histograms.clear();
+	}
+
+}
@@ -0,0 +1,15 @@
+package com.abhijeet.core;
+
+import java.util.List;
+
+public interface MetricsMXBean {
+
+	// Totals and latency histogram of each phase since start or the last reset
+	List<PhaseStatistics> getPhases();
+
+	// Upper bounds in milliseconds of the histogram buckets, the last bucket has none
+	long[] getHistogramBounds();
+
+	void reset();
+
+}
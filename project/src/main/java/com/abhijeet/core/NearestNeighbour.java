@@ -0,0 +1,93 @@
+package com.abhijeet.core;
+
+import java.util.Arrays;
+
+public class NearestNeighbour implements Solver {
+
+	// Start nodes tried, each try is O(n²) at worst
+	private static final int NUM_STARTS = 16;
+
+	private final DistanceMatrix distanceMatrix;
+	private final int numNodes;
+	private final int[][] neighbours;
+	private int[] shortestPath;
+	private double shortestPathWeight;
+
+	public NearestNeighbour(DistanceMatrix distanceMatrix) {
+		this.distanceMatrix = distanceMatrix;
+		numNodes = distanceMatrix.getNumNodes();
+		neighbours = distanceMatrix.getNeighbours();
+	}
+
+	@Override
+	public void solve() {
+
+		shortestPath = new int[numNodes];
+		shortestPathWeight = (numNodes == 0) ? 0 : Double.POSITIVE_INFINITY;
+
+		// Start nodes spread evenly over all nodes
+		int numStarts = Math.min(numNodes, NUM_STARTS);
+		int[] path = new int[numNodes];
+		boolean[] visited = new boolean[numNodes];
+		for (int i = 0; i < numStarts; i++) {
+			int start = (int) ((long) i * numNodes / numStarts);
+			double pathWeight = findPath(start, path, visited);
+			if (pathWeight < shortestPathWeight) {
+				System.arraycopy(path, 0, shortestPath, 0, numNodes);
+				shortestPathWeight = pathWeight;
+			}
+		}
+
+	}
+
+	private double findPath(int start, int[] path, boolean[] visited) {
+
+		Arrays.fill(visited, false);
+		path[0] = start;
+		visited[start] = true;
+		double pathWeight = 0;
+
+		// Always move to the nearest unvisited node
+		for (int position = 1; position < numNodes; position++) {
+			int last = path[position - 1];
+
+			// Candidate neighbours are sorted, so the first unvisited one is the nearest
+			int nearest = -1;
+			for (int node : neighbours[last]) {
+				if (!visited[node]) {
+					nearest = node;
+					break;
+				}
+			}
+
+			// All of them visited, look through every node
+			if (nearest == -1) {
+				double nearestDistance = Double.POSITIVE_INFINITY;
+				for (int node = 0; node < numNodes; node++) {
+					if (!visited[node] && (distanceMatrix.getDistance(last, node) < nearestDistance)) {
+						nearest = node;
+						nearestDistance = distanceMatrix.getDistance(last, node);
+					}
+				}
+			}
+
+			path[position] = nearest;
+			visited[nearest] = true;
+			pathWeight += distanceMatrix.getDistance(last, nearest);
+		}
+
+		return pathWeight;
+
+	}
+
+	@Override
+	public int[] getShortestPath() {
+		return shortestPath;
+	}
+
+	@Override
+	public double getShortestPathWeight() {
+		return shortestPathWeight;
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.abhijeet.core;
+
+public class Path {
+
+	private final int[] nodes;
+	private final double weight;
+
+	public Path(int[] nodes, double weight) {
+		// Node IDs in path order, never modified after construction
+		this.nodes = nodes;
+		this.weight = weight;
+	}
+
+	public int[] getNodes() {
+		return nodes;
+	}
+
+	public int getNode(int position) {
+		return nodes[position];
+	}
+
+	public int getNumNodes() {
+		return nodes.length;
+	}
+
+	public double getWeight() {
+		return weight;
+	}
+
+	public Path reverse() {
+		// Same weight when read from the other end
+		int[] reversedNodes = new int[nodes.length];
+		for (int i = 0; i < nodes.length; i++) {
+			reversedNodes[i] = nodes[nodes.length - 1 - i];
+		}
+		return new Path(reversedNodes, weight);
+	}
+
+}
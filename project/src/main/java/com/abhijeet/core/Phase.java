@@ -0,0 +1,66 @@
+package com.abhijeet.core;
+
+import java.lang.management.ManagementFactory;
+
+public class Phase implements AutoCloseable {
+
+	private static final com.sun.management.ThreadMXBean THREADS = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	private final PhaseEvent event = new PhaseEvent();
+	private final String name;
+	private final long startTime;
+	private final long startAllocatedBytes;
+	private int numNodes;
+	private long numEdges;
+	private long numPathsEvaluated;
+
+	private Phase(String name) {
+		this.name = name;
+		startAllocatedBytes = THREADS.getCurrentThreadAllocatedBytes();
+		startTime = System.nanoTime();
+		event.begin();
+	}
+
+	public static Phase start(String name) {
+		// Timed until closed, on the thread that started it
+		return new Phase(name);
+	}
+
+	public Phase setNumNodes(int numNodes) {
+		this.numNodes = numNodes;
+		return this;
+	}
+
+	public Phase setNumEdges(long numEdges) {
+		this.numEdges = numEdges;
+		return this;
+	}
+
+	public Phase setNumPathsEvaluated(long numPathsEvaluated) {
+		this.numPathsEvaluated = numPathsEvaluated;
+		return this;
+	}
+
+	@Override
+	public void close() {
+
+		event.end();
+		long duration = System.nanoTime() - startTime;
+		long allocatedBytes = THREADS.getCurrentThreadAllocatedBytes() - startAllocatedBytes;
+
+		// Flight recorder event, only filled in when recording
+		if (event.shouldCommit()) {
+			event.phase = name;
+			event.numNodes = numNodes;
+			event.numEdges = numEdges;
+			event.numPathsEvaluated = numPathsEvaluated;
+			event.allocatedBytes = allocatedBytes;
+			event.commit();
+		}
+
+		// Running totals for the MBean
+		Metrics.getInstance().record(name, duration, allocatedBytes, numPathsEvaluated);
+
+	}
+
+}
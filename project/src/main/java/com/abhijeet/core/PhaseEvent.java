@@ -0,0 +1,30 @@
+package com.abhijeet.core;
+
+import jdk.jfr.*;
+
+@Name("com.abhijeet.Phase")
+@Label("Graphx Phase")
+@Category("Graphx")
+@Description("One phase of generating, solving or drawing a graph")
+@StackTrace(false)
+class PhaseEvent extends Event {
+
+	@Label("Phase")
+	String phase;
+
+	@Label("Nodes")
+	int numNodes;
+
+	@Label("Edges")
+	long numEdges;
+
+	@Label("Paths Evaluated")
+	@Description("Complete or partial paths looked at by the solver, 0 if not counted")
+	long numPathsEvaluated;
+
+	@Label("Allocated")
+	@Description("Bytes allocated by the thread running the phase, worker pools not included")
+	@DataAmount
+	long allocatedBytes;
+
+}
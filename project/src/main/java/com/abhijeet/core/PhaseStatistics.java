@@ -0,0 +1,59 @@
+package com.abhijeet.core;
+
+import javax.management.ConstructorParameters;
+
+public class PhaseStatistics {
+
+	private final String name;
+	private final long count;
+	private final double totalMillis;
+	private final double maxMillis;
+	private final long allocatedBytes;
+	private final long numPathsEvaluated;
+	private final long[] histogram;
+
+	@ConstructorParameters({"name", "count", "totalMillis", "maxMillis", "allocatedBytes", "numPathsEvaluated", "histogram"})
+	public PhaseStatistics(String name, long count, double totalMillis, double maxMillis, long allocatedBytes, long numPathsEvaluated, long[] histogram) {
+		this.name = name;
+		this.count = count;
+		this.totalMillis = totalMillis;
+		this.maxMillis = maxMillis;
+		this.allocatedBytes = allocatedBytes;
+		this.numPathsEvaluated = numPathsEvaluated;
+		this.histogram = histogram;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public double getTotalMillis() {
+		return totalMillis;
+	}
+
+	public double getMeanMillis() {
+		return (count == 0) ? 0 : totalMillis / count;
+	}
+
+	public double getMaxMillis() {
+		return maxMillis;
+	}
+
+	public long getAllocatedBytes() {
+		return allocatedBytes;
+	}
+
+	public long getNumPathsEvaluated() {
+		return numPathsEvaluated;
+	}
+
+	public long[] getHistogram() {
+		// Number of runs in each latency bucket
+		return histogram.clone();
+	}
+
+}
@@ -0,0 +1,202 @@
+package com.abhijeet.core;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+public class RankedPaths extends AbstractList<Path> {
+
+	// Largest graph whose n! / 2 path ranks fit in an int
+	public static final int MAX_NODES = 12;
+
+	// Ranks generated per task
+	private static final int CHUNK_SIZE = 1 << 16;
+
+	private final DistanceMatrix distanceMatrix;
+	private final int numNodes;
+	private final long[] entries;
+
+	public RankedPaths(DistanceMatrix distanceMatrix, int parallelism) {
+
+		this.distanceMatrix = distanceMatrix;
+		numNodes = distanceMatrix.getNumNodes();
+		if (numNodes > MAX_NODES) {
+			throw new IllegalArgumentException("Too many nodes to rank all paths: " + numNodes);
+		}
+
+		// One entry per path starting at its smaller end, packing its weight above its rank, the reverse weighs the same
+		int numPaths = (numNodes < 2) ? 1 : (int) (factorial(numNodes) / 2);
+		entries = new long[numPaths];
+
+		// Fill ranges of ranks in parallel
+		List<RankTask> tasks = new ArrayList<>();
+		for (int start = 0; start < numPaths; start += CHUNK_SIZE) {
+			tasks.add(new RankTask(start, Math.min(start + CHUNK_SIZE, numPaths)));
+		}
+		ForkJoinPool pool = new ForkJoinPool(parallelism);
+		try {
+			pool.invoke(new RecursiveAction() {
+				@Override
+				protected void compute() {
+					ForkJoinTask.invokeAll(tasks);
+				}
+			});
+		} finally {
+			pool.shutdown();
+		}
+
+		// Sorting the packed entries sorts paths by weight, then by rank
+		Arrays.parallelSort(entries);
+
+	}
+
+	@Override
+	public Path get(int index) {
+		// Path and exact weight are rebuilt from the rank on demand
+		int[] path = getPath((int) entries[index]);
+		return new Path(path, distanceMatrix.getPathWeight(path));
+	}
+
+	@Override
+	public int size() {
+		return entries.length;
+	}
+
+	private int[] getPath(int rank) {
+
+		if (numNodes < 2) {
+			// No path to order, the single node is node 0
+			return new int[numNodes];
+		}
+
+		// Ends first, pairs with the smaller end first in lexicographic order, each followed by (n - 2)! orders of the middle nodes
+		int numMiddles = (int) factorial(numNodes - 2);
+		int pair = rank / numMiddles;
+		rank %= numMiddles;
+		int first = 0;
+		while (pair >= numNodes - 1 - first) {
+			pair -= numNodes - 1 - first;
+			first++;
+		}
+		int[] path = new int[numNodes];
+		path[0] = first;
+		path[numNodes - 1] = first + 1 + pair;
+		fillMiddle(path);
+
+		// Digits of the rest of the rank in the factorial number system pick the next unused middle node
+		int[] unused = new int[numNodes - 2];
+		System.arraycopy(path, 1, unused, 0, numNodes - 2);
+		for (int position = 1; position < numNodes - 1; position++) {
+			int remaining = numNodes - 1 - position;
+			int radix = (int) factorial(remaining - 1);
+			int index = rank / radix;
+			rank %= radix;
+			path[position] = unused[index];
+			System.arraycopy(unused, index + 1, unused, index, remaining - index - 1);
+		}
+		return path;
+
+	}
+
+	private static void fillMiddle(int[] path) {
+		// Nodes other than both ends in increasing order, the first order of the middle
+		int first = path[0];
+		int last = path[path.length - 1];
+		for (int node = 0, position = 1; node < path.length; node++) {
+			if ((node != first) && (node != last)) {
+				path[position++] = node;
+			}
+		}
+	}
+
+	private static void nextPath(int[] path) {
+
+		// Next order of the middle nodes, or the first order between the next pair of ends
+		if (nextMiddle(path)) {
+			return;
+		}
+		int last = path.length - 1;
+		if (path[last] < last) {
+			path[last]++;
+		} else {
+			path[0]++;
+			path[last] = path[0] + 1;
+		}
+		fillMiddle(path);
+
+	}
+
+	private static boolean nextMiddle(int[] path) {
+
+		// Rightmost middle node smaller than its successor
+		int end = path.length - 2;
+		int pivot = end - 1;
+		while ((pivot >= 1) && (path[pivot] > path[pivot + 1])) {
+			pivot--;
+		}
+		if (pivot < 1) {
+			return false;
+		}
+
+		// Swap it with the smallest larger node on its right
+		int successor = end;
+		while (path[successor] < path[pivot]) {
+			successor--;
+		}
+		int swap = path[pivot];
+		path[pivot] = path[successor];
+		path[successor] = swap;
+
+		// Reverse the suffix into increasing order
+		for (int i = pivot + 1, j = end; i < j; i++, j--) {
+			swap = path[i];
+			path[i] = path[j];
+			path[j] = swap;
+		}
+		return true;
+
+	}
+
+	private static long factorial(int num) {
+		if (num == 0) {
+			return 1;
+		} else {
+			return (num * factorial(num - 1));
+		}
+	}
+
+	private class RankTask extends RecursiveAction {
+
+		private final int start, end;
+
+		private RankTask(int start, int end) {
+			this.start = start;
+			this.end = end;
+		}
+
+		@Override
+		protected void compute() {
+
+			// Consecutive ranks are consecutive orders of the middle nodes between the same ends
+			int[] path = getPath(start);
+			for (int rank = start; rank < end; rank++) {
+
+				// Positive floats sort like their bits, precise enough to order the list
+				float pathWeight = (float) distanceMatrix.getPathWeight(path);
+				entries[rank] = ((long) Float.floatToIntBits(pathWeight) << 32) | rank;
+
+				if (rank + 1 < end) {
+					nextPath(path);
+				}
+
+			}
+
+		}
+
+	}
+
+}
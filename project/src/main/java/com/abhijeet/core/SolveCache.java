@@ -0,0 +1,242 @@
+package com.abhijeet.core;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+public class SolveCache implements SolveCacheMXBean {
+
+	// Name the MBean is registered under
+	public static final String OBJECT_NAME = "com.abhijeet:type=SolveCache";
+
+	// Graphs kept unless configured otherwise
+	public static final int DEFAULT_MAX_SIZE = 64;
+
+	// Solver name of every exact path, whichever solver found it, so the app and batch mode share entries
+	public static final String EXACT = "exact";
+
+	// "GXC1" at the start of a saved cache
+	private static final int MAGIC = 0x47584331;
+
+	// Shortest path of each graph in canonical node order, least recently used first, guarded by this
+	private final LinkedHashMap<String, Path> entries = new LinkedHashMap<>(16, 0.75f, true);
+	private int maxSize;
+	private long hits;
+	private long misses;
+	private long evictions;
+
+	public SolveCache(int maxSize) {
+		this.maxSize = Math.max(maxSize, 0);
+	}
+
+	public static String timeLimited(String solver, long timeLimit) {
+		// Paths of time-limited searches depend on the limit
+		return solver + ":" + timeLimit;
+	}
+
+	public static Key key(GraphModel model, String solver) {
+
+		// Canonical order sorts nodes by coordinates, so the same layout matches whatever order its nodes were read in
+		int numNodes = model.getNumNodes();
+		int[] order = IntStream.range(0, numNodes).boxed()
+				.sorted((first, second) -> {
+					int comparison = Double.compare(model.getX(first) + 0.0, model.getX(second) + 0.0);
+					return (comparison != 0) ? comparison : Double.compare(model.getY(first) + 0.0, model.getY(second) + 0.0);
+				})
+				.mapToInt(Integer::intValue).toArray();
+
+		// SHA-256 of the sorted coordinates, adding 0.0 turns -0.0 into 0.0
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException exception) {
+			throw new IllegalStateException("SHA-256 is not available", exception);
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(16);
+		for (int node : order) {
+			buffer.clear();
+			buffer.putDouble(model.getX(node) + 0.0).putDouble(model.getY(node) + 0.0);
+			digest.update(buffer.array());
+		}
+
+		// Results of different solvers are kept apart
+		return new Key(solver + ":" + numNodes + ":" + HexFormat.of().formatHex(digest.digest()), order);
+
+	}
+
+	public synchronized Path get(Key key) {
+
+		Path canonicalPath = entries.get(key.fingerprint);
+		if (canonicalPath == null) {
+			misses++;
+			return null;
+		}
+		hits++;
+
+		// Back from canonical positions to node IDs of this graph
+		int[] nodes = new int[canonicalPath.getNumNodes()];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = key.order[canonicalPath.getNode(i)];
+		}
+		return new Path(nodes, canonicalPath.getWeight());
+
+	}
+
+	public synchronized void put(Key key, Path path) {
+
+		if (maxSize == 0) {
+			return;
+		}
+
+		// Canonical position of each node
+		int[] positions = new int[key.order.length];
+		for (int position = 0; position < positions.length; position++) {
+			positions[key.order[position]] = position;
+		}
+		int[] nodes = new int[path.getNumNodes()];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = positions[path.getNode(i)];
+		}
+		entries.put(key.fingerprint, new Path(nodes, path.getWeight()));
+		trim();
+
+	}
+
+	private void trim() {
+		// Drop least recently used graphs beyond the size limit
+		Iterator<String> iterator = entries.keySet().iterator();
+		while (entries.size() > maxSize) {
+			iterator.next();
+			iterator.remove();
+			evictions++;
+		}
+	}
+
+	public synchronized void load(java.nio.file.Path file) throws IOException {
+
+		// A cache keeping nothing would drop every entry, and saving it would empty the file
+		if (maxSize == 0) {
+			throw new IllegalStateException("Cannot load into a cache of size 0: " + file);
+		}
+
+		// Entries saved least recently used first, so loading them in order keeps their recency
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			if (input.readInt() != MAGIC) {
+				throw new IOException("Not a saved cache: " + file);
+			}
+			int numEntries = input.readInt();
+			for (int entry = 0; entry < numEntries; entry++) {
+				String fingerprint = input.readUTF();
+				int[] nodes = new int[input.readInt()];
+				for (int i = 0; i < nodes.length; i++) {
+					nodes[i] = input.readInt();
+					if ((nodes[i] < 0) || (nodes[i] >= nodes.length)) {
+						throw new IOException("Corrupt saved cache: " + file);
+					}
+				}
+				entries.put(fingerprint, new Path(nodes, input.readDouble()));
+			}
+		}
+		trim();
+
+	}
+
+	public synchronized void save(java.nio.file.Path file) throws IOException {
+
+		if (maxSize == 0) {
+			throw new IllegalStateException("Cannot save a cache of size 0: " + file);
+		}
+
+		// Written next to the file and moved over it, so a crash never leaves half a cache
+		java.nio.file.Path temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+		try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+			output.writeInt(MAGIC);
+			output.writeInt(entries.size());
+			for (Map.Entry<String, Path> entry : entries.entrySet()) {
+				output.writeUTF(entry.getKey());
+				output.writeInt(entry.getValue().getNumNodes());
+				for (int node : entry.getValue().getNodes()) {
+					output.writeInt(node);
+				}
+				output.writeDouble(entry.getValue().getWeight());
+			}
+		}
+		Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+	}
+
+	public void register() {
+		// Visible to JMX clients next to the phase timings, replacing any cache registered before
+		try {
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+				ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+			}
+			ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+		} catch (JMException exception) {
+			throw new IllegalStateException("Cannot register " + OBJECT_NAME, exception);
+		}
+	}
+
+	@Override
+	public synchronized long getHits() {
+		return hits;
+	}
+
+	@Override
+	public synchronized long getMisses() {
+		return misses;
+	}
+
+	@Override
+	public synchronized long getEvictions() {
+		return evictions;
+	}
+
+	@Override
+	public synchronized int getSize() {
+		return entries.size();
+	}
+
+	@Override
+	public synchronized int getMaxSize() {
+		return maxSize;
+	}
+
+	@Override
+	public synchronized void setMaxSize(int maxSize) {
+		this.maxSize = Math.max(maxSize, 0);
+		trim();
+	}
+
+	@Override
+	public synchronized void clear() {
+		entries.clear();
+		hits = misses = evictions = 0;
+	}
+
+	public static final class Key {
+
+		// Solver, node count and hash of the layout, and node IDs in canonical order
+		private final String fingerprint;
+		private final int[] order;
+
+		private Key(String fingerprint, int[] order) {
+			this.fingerprint = fingerprint;
+			this.order = order;
+		}
+
+	}
+
+}
@@ -0,0 +1,21 @@
+package com.abhijeet.core;
+
+public interface SolveCacheMXBean {
+
+	// Lookups that found a solved graph and lookups that did not, since start or the last clear
+	long getHits();
+
+	long getMisses();
+
+	// Least recently used graphs dropped to stay within the size limit
+	long getEvictions();
+
+	int getSize();
+
+	int getMaxSize();
+
+	void setMaxSize(int maxSize);
+
+	void clear();
+
+}
@@ -0,0 +1,25 @@
+package com.abhijeet.core;
+
+import java.util.List;
+
+public interface Solver {
+
+	// Find the shortest Hamiltonian path
+	void solve();
+
+	// Node indices in path order
+	int[] getShortestPath();
+
+	double getShortestPathWeight();
+
+	// Shortest paths in increasing order of weight, only the shortest one unless the solver keeps more
+	default List<Path> getShortestPaths() {
+		return List.of(new Path(getShortestPath(), getShortestPathWeight()));
+	}
+
+	// Branches, kicks or other units of search work done by the last solve, 0 if not counted
+	default long getNumEvaluations() {
+		return 0;
+	}
+
+}
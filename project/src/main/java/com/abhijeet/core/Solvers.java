@@ -0,0 +1,34 @@
+package com.abhijeet.core;
+
+public class Solvers {
+
+	// Largest graph solved with dynamic programming, branch and bound is faster beyond it
+	public static final int HELD_KARP_LIMIT = 12;
+
+	// Largest graph solved exactly, heuristics are used beyond it
+	public static final int EXACT_LIMIT = 20;
+
+	private Solvers() {
+	}
+
+	public static boolean isExact(int numNodes) {
+		return numNodes <= EXACT_LIMIT;
+	}
+
+	public static Solver newSolver(DistanceMatrix distanceMatrix) {
+		// Exact solver while the search stays fast, heuristic beyond
+		if (isExact(distanceMatrix.getNumNodes())) {
+			return newExactSolver(distanceMatrix);
+		}
+		return new LocalSearch(distanceMatrix);
+	}
+
+	public static Solver newExactSolver(DistanceMatrix distanceMatrix) {
+		// Shortest path in O(n² · 2ⁿ), or by pruning the search tree on larger graphs
+		if (distanceMatrix.getNumNodes() <= HELD_KARP_LIMIT) {
+			return new HeldKarp(distanceMatrix);
+		}
+		return new BranchAndBound(distanceMatrix);
+	}
+
+}
@@ -0,0 +1,170 @@
+package com.abhijeet.core;
+
+import java.util.Arrays;
+
+public class SpatialGrid {
+
+	private final double minX, minY;
+	private final double cellSize;
+	private final int numColumns, numRows;
+	private final double[] x, y;
+
+	// First node in each cell and the next node in the same cell, -1 ends the list
+	private final int[] firstNodes;
+	private final int[] nextNodes;
+
+	public SpatialGrid(double minX, double minY, double maxX, double maxY, double cellSize, double[] x, double[] y) {
+
+		this.minX = minX;
+		this.minY = minY;
+		this.cellSize = cellSize;
+		this.x = x;
+		this.y = y;
+
+		// Cells at least as large as the distances looked up, so only the surrounding cells are searched
+		numColumns = (int) ((maxX - minX) / cellSize) + 1;
+		numRows = (int) ((maxY - minY) / cellSize) + 1;
+		firstNodes = new int[numColumns * numRows];
+		Arrays.fill(firstNodes, -1);
+		nextNodes = new int[x.length];
+
+	}
+
+	public static SpatialGrid of(double[] x, double[] y) {
+
+		// Bounds of all nodes
+		double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+		double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+		for (int node = 0; node < x.length; node++) {
+			minX = Math.min(minX, x[node]);
+			minY = Math.min(minY, y[node]);
+			maxX = Math.max(maxX, x[node]);
+			maxY = Math.max(maxY, y[node]);
+		}
+		if (x.length == 0) {
+			minX = minY = maxX = maxY = 0;
+		}
+
+		// About two nodes per cell when they are spread evenly
+		double width = maxX - minX;
+		double height = maxY - minY;
+		double cellSize = Math.max(Math.sqrt(2 * width * height / Math.max(x.length, 1)), Math.max(width, height) / Math.max(x.length, 1));
+		if (cellSize == 0) {
+			cellSize = 1;
+		}
+
+		SpatialGrid grid = new SpatialGrid(minX, minY, maxX, maxY, cellSize, x, y);
+		for (int node = 0; node < x.length; node++) {
+			grid.add(node);
+		}
+		return grid;
+
+	}
+
+	public void add(int node) {
+		int cell = getRow(y[node]) * numColumns + getColumn(x[node]);
+		nextNodes[node] = firstNodes[cell];
+		firstNodes[cell] = node;
+	}
+
+	public boolean isWithin(double pointX, double pointY, double distance) {
+		// Any added node at the given distance or closer, in O(1) for distances up to the cell size
+		return findNearest(pointX, pointY, distance) != -1;
+	}
+
+	public int findNearest(double pointX, double pointY, double maxDistance) {
+
+		// Only the cells overlapping the circle around the point
+		int span = (int) Math.ceil(maxDistance / cellSize);
+		int column = getColumn(pointX);
+		int row = getRow(pointY);
+		int nearest = -1;
+		double nearestDistance = maxDistance * maxDistance;
+
+		for (int otherRow = Math.max(row - span, 0); otherRow <= Math.min(row + span, numRows - 1); otherRow++) {
+			for (int otherColumn = Math.max(column - span, 0); otherColumn <= Math.min(column + span, numColumns - 1); otherColumn++) {
+				for (int node = firstNodes[otherRow * numColumns + otherColumn]; node != -1; node = nextNodes[node]) {
+					double dx = x[node] - pointX;
+					double dy = y[node] - pointY;
+					double distance = dx * dx + dy * dy;
+					if (distance <= nearestDistance) {
+						nearest = node;
+						nearestDistance = distance;
+					}
+				}
+			}
+		}
+
+		return nearest;
+
+	}
+
+	public int[] findNearest(int node, int numNearest) {
+
+		int size = Math.max(0, Math.min(numNearest, x.length - 1));
+		int[] nearest = new int[size];
+		double[] nearestDistances = new double[size];
+		int count = 0;
+		int column = getColumn(x[node]);
+		int row = getRow(y[node]);
+
+		// Rings of cells around the node, until nothing closer than the farthest nearest node can be left
+		for (int ring = 0; ring <= Math.max(numColumns, numRows); ring++) {
+
+			double ringDistance = (ring - 1) * cellSize;
+			if ((size == 0) || ((count == size) && (ring > 0) && (nearestDistances[size - 1] <= ringDistance * ringDistance))) {
+				break;
+			}
+
+			for (int otherRow = row - ring; otherRow <= row + ring; otherRow++) {
+				if ((otherRow < 0) || (otherRow >= numRows)) {
+					continue;
+				}
+
+				// Whole top and bottom rows of the ring, only both ends of the rows in between
+				int step = ((otherRow == row - ring) || (otherRow == row + ring)) ? 1 : Math.max(2 * ring, 1);
+				for (int otherColumn = column - ring; otherColumn <= column + ring; otherColumn += step) {
+					if ((otherColumn < 0) || (otherColumn >= numColumns)) {
+						continue;
+					}
+
+					for (int other = firstNodes[otherRow * numColumns + otherColumn]; other != -1; other = nextNodes[other]) {
+						if (other == node) {
+							continue;
+						}
+						double dx = x[other] - x[node];
+						double dy = y[other] - y[node];
+						double distance = dx * dx + dy * dy;
+						if ((count == size) && (distance >= nearestDistances[size - 1])) {
+							continue;
+						}
+
+						// Kept sorted by insertion, nearest first
+						int index = (count < size) ? count++ : size - 1;
+						while ((index > 0) && (nearestDistances[index - 1] > distance)) {
+							nearest[index] = nearest[index - 1];
+							nearestDistances[index] = nearestDistances[index - 1];
+							index--;
+						}
+						nearest[index] = other;
+						nearestDistances[index] = distance;
+					}
+				}
+			}
+
+		}
+
+		return nearest;
+
+	}
+
+	private int getColumn(double pointX) {
+		// Points outside the bounds belong to the border cells
+		return Math.max(0, Math.min(numColumns - 1, (int) ((pointX - minX) / cellSize)));
+	}
+
+	private int getRow(double pointY) {
+		return Math.max(0, Math.min(numRows - 1, (int) ((pointY - minY) / cellSize)));
+	}
+
+}
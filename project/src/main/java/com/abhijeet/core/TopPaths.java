@@ -0,0 +1,132 @@
+package com.abhijeet.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class TopPaths {
+
+	private final int capacity;
+	private final int numNodes;
+	private final double[] weights;
+	private final int[] paths;
+	private final int[] heap;
+	private int size;
+
+	public TopPaths(int capacity, int numNodes) {
+
+		this.capacity = capacity;
+		this.numNodes = numNodes;
+
+		// Each slot holds one path, the heap orders slots with the longest path at the root
+		weights = new double[capacity];
+		paths = new int[capacity * numNodes];
+		heap = new int[capacity];
+
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public double getThreshold() {
+		// Paths must be shorter than this to be kept
+		return (size < capacity) ? Double.POSITIVE_INFINITY : weights[heap[0]];
+	}
+
+	public boolean offer(int[] path, double weight) {
+		return offer(path, 0, weight);
+	}
+
+	private boolean offer(int[] source, int offset, double weight) {
+
+		int slot;
+
+		if (size < capacity) {
+
+			// Fill the next free slot
+			slot = size;
+			heap[size] = slot;
+			weights[slot] = weight;
+			System.arraycopy(source, offset, paths, slot * numNodes, numNodes);
+			siftUp(size);
+			size++;
+
+		} else if (weight < weights[heap[0]]) {
+
+			// Replace the longest path kept so far
+			slot = heap[0];
+			weights[slot] = weight;
+			System.arraycopy(source, offset, paths, slot * numNodes, numNodes);
+			siftDown(0);
+
+		} else {
+			return false;
+		}
+
+		return true;
+
+	}
+
+	public void addAll(TopPaths other) {
+		for (int i = 0; i < other.size; i++) {
+			int slot = other.heap[i];
+			offer(other.paths, slot * numNodes, other.weights[slot]);
+		}
+	}
+
+	public List<Path> getPaths() {
+
+		// Slots sorted from shortest to longest path
+		Integer[] slots = new Integer[size];
+		for (int i = 0; i < size; i++) {
+			slots[i] = heap[i];
+		}
+		Arrays.sort(slots, (first, second) -> Double.compare(weights[first], weights[second]));
+
+		List<Path> sortedPaths = new ArrayList<>(size);
+		for (int slot : slots) {
+			int[] path = Arrays.copyOfRange(paths, slot * numNodes, (slot + 1) * numNodes);
+			sortedPaths.add(new Path(path, weights[slot]));
+		}
+		return sortedPaths;
+
+	}
+
+	private void siftUp(int index) {
+		int slot = heap[index];
+		while (index > 0) {
+			int parent = (index - 1) / 2;
+			if (weights[heap[parent]] >= weights[slot]) {
+				break;
+			}
+			heap[index] = heap[parent];
+			index = parent;
+		}
+		heap[index] = slot;
+	}
+
+	private void siftDown(int index) {
+		int slot = heap[index];
+		while (true) {
+			int child = 2 * index + 1;
+			if (child >= size) {
+				break;
+			}
+			if ((child + 1 < size) && (weights[heap[child + 1]] > weights[heap[child]])) {
+				child++;
+			}
+			if (weights[heap[child]] <= weights[slot]) {
+				break;
+			}
+			heap[index] = heap[child];
+			index = child;
+		}
+		heap[index] = slot;
+	}
+
+}
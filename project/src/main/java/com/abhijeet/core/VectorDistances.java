@@ -0,0 +1,120 @@
+package com.abhijeet.core;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+// Distances computed several lanes at a time, only loaded when the incubator module is present
+final class VectorDistances {
+
+	// Widest vector the CPU runs natively, 4 doubles with AVX2 and 8 with AVX-512
+	private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+	// Node indices with as many lanes as SPECIES, half as wide
+	private static final VectorSpecies<Integer> INDEX_SPECIES = VectorSpecies.of(int.class, VectorShape.forBitSize(SPECIES.length() * Integer.SIZE));
+
+	// Fewest nodes worth a vector loop, below it vector code never wins back the time it runs slowly before the JIT compiles it
+	static final int MIN_NODES = 1000;
+
+	private VectorDistances() {
+	}
+
+	static void computeRow(double[] x, double[] y, int node, double[] matrix, int offset) {
+
+		// Distances from the node to every node, the same bits as one at a time since nothing is fused
+		int numNodes = x.length;
+		DoubleVector nodeX = DoubleVector.broadcast(SPECIES, x[node]);
+		DoubleVector nodeY = DoubleVector.broadcast(SPECIES, y[node]);
+		int other = 0;
+		for (int bound = SPECIES.loopBound(numNodes); other < bound; other += SPECIES.length()) {
+			DoubleVector dx = DoubleVector.fromArray(SPECIES, x, other).sub(nodeX);
+			DoubleVector dy = DoubleVector.fromArray(SPECIES, y, other).sub(nodeY);
+			dx.mul(dx).add(dy.mul(dy)).sqrt().intoArray(matrix, offset + other);
+		}
+
+		// Nodes left over past the last full vector
+		for (; other < numNodes; other++) {
+			double dx = x[other] - x[node];
+			double dy = y[other] - y[node];
+			matrix[offset + other] = Math.sqrt(dx * dx + dy * dy);
+		}
+
+	}
+
+	static double getPathWeight(double[] x, double[] y, int[] path) {
+
+		// Coordinates of the path gathered one vector ahead, each edge's second node shifted in from the next vector
+		int numEdges = path.length - 1;
+		int length = SPECIES.length();
+		DoubleVector pathWeights = DoubleVector.zero(SPECIES);
+		int i = 0;
+		if (numEdges >= length) {
+			DoubleVector firstX = DoubleVector.fromArray(SPECIES, x, 0, path, 0);
+			DoubleVector firstY = DoubleVector.fromArray(SPECIES, y, 0, path, 0);
+			for (int bound = SPECIES.loopBound(path.length) - length; i < bound; i += length) {
+				DoubleVector nextX = DoubleVector.fromArray(SPECIES, x, 0, path, i + length);
+				DoubleVector nextY = DoubleVector.fromArray(SPECIES, y, 0, path, i + length);
+				DoubleVector dx = firstX.slice(1, nextX).sub(firstX);
+				DoubleVector dy = firstY.slice(1, nextY).sub(firstY);
+				pathWeights = pathWeights.add(dx.mul(dx).add(dy.mul(dy)).sqrt());
+				firstX = nextX;
+				firstY = nextY;
+			}
+		}
+		double pathWeight = pathWeights.reduceLanes(VectorOperators.ADD);
+
+		// Edges left over past the last full vector
+		for (; i < numEdges; i++) {
+			double dx = x[path[i + 1]] - x[path[i]];
+			double dy = y[path[i + 1]] - y[path[i]];
+			pathWeight += Math.sqrt(dx * dx + dy * dy);
+		}
+		return pathWeight;
+
+	}
+
+	static void getTwoOptGains(double[] x, double[] y, int node, int[] ends, int[] others, int[] otherEnds, int count, double[] gains) {
+
+		// One move per lane, the edge between the ends masked out where either is missing, the same bits as one at a time
+		DoubleVector nodeX = DoubleVector.broadcast(SPECIES, x[node]);
+		DoubleVector nodeY = DoubleVector.broadcast(SPECIES, y[node]);
+		IntVector nodes = IntVector.broadcast(INDEX_SPECIES, node);
+		int i = 0;
+		for (int bound = SPECIES.loopBound(count); i < bound; i += SPECIES.length()) {
+			VectorMask<Integer> noEnd = IntVector.fromArray(INDEX_SPECIES, ends, i).compare(VectorOperators.EQ, nodes);
+			VectorMask<Integer> noOtherEnd = IntVector.fromArray(INDEX_SPECIES, otherEnds, i).compare(VectorOperators.EQ, IntVector.fromArray(INDEX_SPECIES, others, i));
+			DoubleVector endX = DoubleVector.fromArray(SPECIES, x, 0, ends, i);
+			DoubleVector endY = DoubleVector.fromArray(SPECIES, y, 0, ends, i);
+			DoubleVector otherX = DoubleVector.fromArray(SPECIES, x, 0, others, i);
+			DoubleVector otherY = DoubleVector.fromArray(SPECIES, y, 0, others, i);
+			DoubleVector otherEndX = DoubleVector.fromArray(SPECIES, x, 0, otherEnds, i);
+			DoubleVector otherEndY = DoubleVector.fromArray(SPECIES, y, 0, otherEnds, i);
+			DoubleVector added = getDistances(endX, endY, otherEndX, otherEndY).blend(0, noEnd.or(noOtherEnd).cast(SPECIES));
+			getDistances(nodeX, nodeY, endX, endY).add(getDistances(otherX, otherY, otherEndX, otherEndY))
+					.sub(getDistances(nodeX, nodeY, otherX, otherY)).sub(added).intoArray(gains, i);
+		}
+
+		// Moves left over past the last full vector
+		for (; i < count; i++) {
+			double added = ((ends[i] == node) || (otherEnds[i] == others[i])) ? 0 : getDistance(x, y, ends[i], otherEnds[i]);
+			gains[i] = getDistance(x, y, node, ends[i]) + getDistance(x, y, others[i], otherEnds[i]) - getDistance(x, y, node, others[i]) - added;
+		}
+
+	}
+
+	private static DoubleVector getDistances(DoubleVector firstX, DoubleVector firstY, DoubleVector secondX, DoubleVector secondY) {
+		DoubleVector dx = secondX.sub(firstX);
+		DoubleVector dy = secondY.sub(firstY);
+		return dx.mul(dx).add(dy.mul(dy)).sqrt();
+	}
+
+	private static double getDistance(double[] x, double[] y, int firstNode, int secondNode) {
+		double dx = x[secondNode] - x[firstNode];
+		double dy = y[secondNode] - y[firstNode];
+		return Math.sqrt(dx * dx + dy * dy);
+	}
+
+}
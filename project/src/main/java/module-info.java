@@ -2,6 +2,10 @@ module com.abhijeet {
 	requires javafx.controls;
 	requires javafx.fxml;
 	requires com.jfoenix;
+	requires jdk.jfr;
+	requires jdk.management;
+	requires static jdk.incubator.vector;
 	opens com.abhijeet to javafx.fxml;
 	exports com.abhijeet;
+	exports com.abhijeet.core;
 }